@@ -2,8 +2,10 @@ package com.izin_talebi.izin_talebi_spring;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class IzinTalebiSpringApplication {
 
 	public static void main(String[] args) {
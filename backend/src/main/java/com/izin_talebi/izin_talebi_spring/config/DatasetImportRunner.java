@@ -0,0 +1,36 @@
+package com.izin_talebi.izin_talebi_spring.config;
+
+import com.izin_talebi.izin_talebi_spring.service.DatasetImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * izin.import.file tanımlıysa açılışta Excel dökümünü içe aktarır. Bellek içi indeksler
+ * ApplicationReadyEvent'te kurulduğu için aktarılan kayıtları içerir.
+ */
+@Component
+@Order(2)
+@ConditionalOnProperty(name = "izin.import.file")
+public class DatasetImportRunner implements CommandLineRunner {
+
+    private final DatasetImportService datasetImportService;
+    private final Path file;
+
+    @Autowired
+    public DatasetImportRunner(DatasetImportService datasetImportService,
+                               @Value("${izin.import.file}") String file) {
+        this.datasetImportService = datasetImportService;
+        this.file = Path.of(file);
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        datasetImportService.importFile(file);
+    }
+}
@@ -0,0 +1,165 @@
+package com.izin_talebi.izin_talebi_spring.config;
+
+import com.izin_talebi.izin_talebi_spring.model.AnalysisJob;
+import com.izin_talebi.izin_talebi_spring.model.IzinTalebi;
+import com.izin_talebi.izin_talebi_spring.model.LeaveRequest;
+import com.izin_talebi.izin_talebi_spring.model.User;
+import com.izin_talebi.izin_talebi_spring.repository.IzinTalebiRepository;
+import com.izin_talebi.izin_talebi_spring.repository.LeaveRequestRepository;
+import com.izin_talebi.izin_talebi_spring.repository.UserRepository;
+import com.izin_talebi.izin_talebi_spring.service.LlmResponseCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Doküman sınıflarında tanımlı indeksleri açılışta oluşturur, veritabanındaki indekslerle
+ * karşılaştırır ve repository sorgularından indeksle desteklenmeyenleri loglar. Repository'si
+ * olmayan koleksiyonların (analiz kuyruğu, LLM önbelleği) indeksleri de burada tanımlanır.
+ */
+@Component
+@Order(0)
+public class IndexBootstrap implements CommandLineRunner {
+    private static final Logger logger = LoggerFactory.getLogger(IndexBootstrap.class);
+
+    // Repository arayüzü -> doküman sınıfı
+    private static final Map<Class<?>, Class<?>> REPOSITORIES = new LinkedHashMap<>();
+
+    static {
+        REPOSITORIES.put(UserRepository.class, User.class);
+        REPOSITORIES.put(IzinTalebiRepository.class, IzinTalebi.class);
+        REPOSITORIES.put(LeaveRequestRepository.class, LeaveRequest.class);
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+    private final boolean llmCachePersistent;
+    private final long llmCacheTtlSeconds;
+
+    @Autowired
+    public IndexBootstrap(MongoTemplate mongoTemplate, MongoMappingContext mappingContext,
+                          @Value("${openai.cache.persistent:false}") boolean llmCachePersistent,
+                          @Value("${openai.cache.persistent-ttl-seconds:604800}") long llmCacheTtlSeconds) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+        this.llmCachePersistent = llmCachePersistent;
+        this.llmCacheTtlSeconds = llmCacheTtlSeconds;
+    }
+
+    @Override
+    public void run(String... args) {
+        IndexResolver resolver = IndexResolver.create(mappingContext);
+        REPOSITORIES.forEach((repository, document) -> {
+            IndexOperations indexOps = mongoTemplate.indexOps(document);
+            List<IndexDefinition> definitions = new ArrayList<>();
+            resolver.resolveIndexFor(document).forEach(definitions::add);
+            List<List<String>> declared = ensureIndexes(indexOps, collection(document), definitions);
+            List<List<String>> existing = verifyIndexes(indexOps, collection(document), declared);
+            checkQueryShapes(repository, document, existing);
+        });
+        collectionIndexes().forEach((collection, definitions) -> {
+            IndexOperations indexOps = mongoTemplate.indexOps(collection);
+            verifyIndexes(indexOps, collection, ensureIndexes(indexOps, collection, definitions));
+        });
+    }
+
+    // Kuyruk işleri durum ve zamana göre alınır; önbellek kayıtları createdAt'ten itibaren TTL ile silinir
+    private Map<String, List<IndexDefinition>> collectionIndexes() {
+        Map<String, List<IndexDefinition>> indexes = new LinkedHashMap<>();
+        indexes.put(collection(AnalysisJob.class), List.of(
+                new Index().on("status", Sort.Direction.ASC).on("availableAt", Sort.Direction.ASC),
+                new Index().on("status", Sort.Direction.ASC).on("lockedUntil", Sort.Direction.ASC)));
+        if (llmCachePersistent) {
+            indexes.put(LlmResponseCache.COLLECTION, List.of(
+                    new Index().on("createdAt", Sort.Direction.ASC).expire(llmCacheTtlSeconds, TimeUnit.SECONDS)));
+        }
+        return indexes;
+    }
+
+    private List<List<String>> ensureIndexes(IndexOperations indexOps, String collection, List<IndexDefinition> definitions) {
+        List<List<String>> declared = new ArrayList<>();
+        for (IndexDefinition definition : definitions) {
+            declared.add(new ArrayList<>(definition.getIndexKeys().keySet()));
+            try {
+                indexOps.ensureIndex(definition);
+            } catch (Exception e) {
+                // Örn. mevcut veride tekrar eden e-postalar ya da TTL süresi değişmiş indeks;
+                // uygulamanın açılmasını engelleme
+                logger.warn("Index {} on {} could not be created: {}",
+                        definition.getIndexKeys().toJson(), collection, e.getMessage());
+            }
+        }
+        return declared;
+    }
+
+    private List<List<String>> verifyIndexes(IndexOperations indexOps, String collection, List<List<String>> declared) {
+        List<List<String>> existing = new ArrayList<>();
+        for (IndexInfo info : indexOps.getIndexInfo()) {
+            existing.add(info.getIndexFields().stream().map(IndexField::getKey).toList());
+        }
+        for (List<String> keys : declared) {
+            if (!existing.contains(keys)) {
+                logger.warn("Declared index {} is missing on {}", keys, collection);
+            }
+        }
+        for (List<String> keys : existing) {
+            if (!declared.contains(keys) && !keys.equals(List.of("_id"))) {
+                logger.info("Index {} on {} is not declared", keys, collection);
+            }
+        }
+        return existing;
+    }
+
+    // Türetilmiş sorgu metotlarının filtre alanları bir indeksin ön eki değilse COLLSCAN yapılır
+    private void checkQueryShapes(Class<?> repository, Class<?> document, List<List<String>> existing) {
+        for (Method method : repository.getDeclaredMethods()) {
+            PartTree tree;
+            try {
+                tree = new PartTree(method.getName(), document);
+            } catch (Exception e) {
+                continue;
+            }
+            List<String> fields = tree.getParts().stream()
+                    .map(part -> part.getProperty().toDotPath())
+                    .map(path -> path.equals("id") ? "_id" : path)
+                    .distinct()
+                    .toList();
+            if (fields.isEmpty()) {
+                continue;
+            }
+            boolean supported = existing.stream().anyMatch(keys ->
+                    keys.size() >= fields.size() && keys.subList(0, fields.size()).containsAll(fields));
+            if (!supported) {
+                logger.warn("Query {}.{} on {} has no supporting index",
+                        repository.getSimpleName(), method.getName(), fields);
+            } else {
+                logger.debug("Query {}.{} on {} is index-backed", repository.getSimpleName(), method.getName(), fields);
+            }
+        }
+    }
+
+    private String collection(Class<?> document) {
+        return mongoTemplate.getCollectionName(document);
+    }
+}
@@ -0,0 +1,44 @@
+package com.izin_talebi.izin_talebi_spring.config;
+
+import org.bson.Document;
+
+import java.util.List;
+
+/**
+ * leave_requests içindeki eski DBRef kullanıcı alanlarını gömülü kullanıcı özetine çeviren pipeline.
+ * Sunucu tarafında $lookup + $merge ile çalışır; dönüştürülmüş kayıtlar artık $ref içermediği
+ * için tekrar çalıştırmak güvenlidir.
+ */
+final class LeaveRequestSnapshotPipeline {
+
+    static final List<Document> PIPELINE = List.of(
+            Document.parse("{ $match: { 'user.$ref': 'calisanlar' } }"),
+            // DBRef'in $id alanı aggregation ifadelerinde doğrudan okunamaz; $objectToArray ile çıkarılır
+            Document.parse("""
+                    { $lookup: {
+                        from: 'calisanlar',
+                        let: { uid: { $arrayElemAt: [ { $map: {
+                            input: { $filter: { input: { $objectToArray: '$user' },
+                                                cond: { $eq: [ '$$this.k', { $literal: '$id' } ] } } },
+                            in: '$$this.v' } }, 0 ] } },
+                        pipeline: [
+                            { $match: { $expr: { $eq: [ '$_id', '$$uid' ] } } },
+                            { $project: { calisanId: 1, adSoyad: 1, pozisyon: 1 } }
+                        ],
+                        as: '_snapshot'
+                    } }
+                    """),
+            Document.parse("""
+                    { $set: { user: { $let: {
+                        vars: { u: { $arrayElemAt: [ '$_snapshot', 0 ] } },
+                        in: { userId: { $toString: '$$u._id' }, calisanId: '$$u.calisanId',
+                              adSoyad: '$$u.adSoyad', pozisyon: '$$u.pozisyon' }
+                    } } } }
+                    """),
+            Document.parse("{ $unset: '_snapshot' }"),
+            Document.parse("{ $merge: { into: 'leave_requests', on: '_id', whenMatched: 'replace', whenNotMatched: 'discard' } }")
+    );
+
+    private LeaveRequestSnapshotPipeline() {
+    }
+}
@@ -0,0 +1,160 @@
+package com.izin_talebi.izin_talebi_spring.config;
+
+import com.izin_talebi.izin_talebi_spring.service.UserCache;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Sürümlü, küme tabanlı açılış migration'ları. Her adım tek bir updateMany ya da aggregation
+ * pipeline'ıdır ve tamamlandığında migrations koleksiyonuna yazılır, bir daha çalışmaz.
+ * Adımın kaydı aynı zamanda kilittir: _id üzerindeki tekil insert'i kazanan instance adımı çalıştırır,
+ * diğerleri tamamlanmasını bekler. Süresi dolan ya da hatayla bırakılan (FAILED) kilit devralınır;
+ * adımlar tekrar çalışmaya karşı güvenlidir.
+ */
+@Component
+@Order(1)
+public class StartupMigrations implements CommandLineRunner {
+    private static final Logger logger = LoggerFactory.getLogger(StartupMigrations.class);
+
+    private static final String COLLECTION = "migrations";
+    private static final String RUNNING = "RUNNING";
+    private static final String DONE = "DONE";
+    private static final String FAILED = "FAILED";
+    private static final long POLL_MILLIS = 500;
+
+    record Step(String id, String description, Consumer<MongoTemplate> apply) {
+    }
+
+    // Yeni adımlar sona eklenir; mevcut adımların kimliği ve içeriği değiştirilmez
+    static final List<Step> STEPS = List.of(
+            new Step("001-default-role", "Rolü olmayan çalışanlara varsayılan rol",
+                    template -> template.getCollection("calisanlar").updateMany(
+                            Document.parse("{ $or: [ { role: { $exists: false } }, { role: null }, { role: '' } ] }"),
+                            new Document("$set", new Document("role", "Çalışan")))),
+            new Step("002-enabled-default", "enabled alanı olmayan çalışanları etkinleştir",
+                    template -> template.getCollection("calisanlar").updateMany(
+                            Document.parse("{ enabled: { $exists: false } }"),
+                            Document.parse("{ $set: { enabled: true } }"))),
+            new Step("003-leave-request-user-snapshot", "leave_requests DBRef kullanıcılarını gömülü özete çevir",
+                    template -> template.getCollection("leave_requests")
+                            .aggregate(LeaveRequestSnapshotPipeline.PIPELINE).toCollection())
+    );
+
+    private final MongoTemplate mongoTemplate;
+    private final UserCache userCache;
+    private final long lockMillis;
+    private final String owner;
+    private final List<Step> steps;
+
+    @Autowired
+    public StartupMigrations(MongoTemplate mongoTemplate, UserCache userCache,
+                             @Value("${migrations.lock-timeout-seconds:300}") long lockTimeoutSeconds) {
+        this(mongoTemplate, userCache, lockTimeoutSeconds, STEPS);
+    }
+
+    StartupMigrations(MongoTemplate mongoTemplate, UserCache userCache, long lockTimeoutSeconds, List<Step> steps) {
+        this.mongoTemplate = mongoTemplate;
+        this.userCache = userCache;
+        this.lockMillis = lockTimeoutSeconds * 1000;
+        this.owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+        this.steps = steps;
+    }
+
+    @Override
+    public void run(String... args) throws InterruptedException {
+        int applied = 0;
+        for (Step step : steps) {
+            if (runOrAwait(step)) {
+                applied++;
+            }
+        }
+        if (applied > 0) {
+            // Adımlar çalışan kayıtlarını doğrudan değiştirir
+            userCache.invalidateAll();
+        }
+    }
+
+    // Adımı bu instance çalıştırdıysa true; başkası çalıştırıyorsa bitmesini bekler
+    private boolean runOrAwait(Step step) throws InterruptedException {
+        while (true) {
+            if (tryLock(step)) {
+                long start = System.currentTimeMillis();
+                try {
+                    step.apply().accept(mongoTemplate);
+                } catch (RuntimeException e) {
+                    release(step, e);
+                    throw e;
+                }
+                mongoTemplate.updateFirst(new Query(where("_id").is(step.id()).and("owner").is(owner)),
+                        new Update().set("status", DONE).set("completedAt", new Date()).unset("lockedUntil"),
+                        COLLECTION);
+                logger.info("Migration {} applied in {} ms: {}", step.id(), System.currentTimeMillis() - start,
+                        step.description());
+                return true;
+            }
+            Document record = mongoTemplate.findById(step.id(), Document.class, COLLECTION);
+            if (record != null && DONE.equals(record.getString("status"))) {
+                return false;
+            }
+            logger.info("Migration {} is running on another instance, waiting", step.id());
+            Thread.sleep(POLL_MILLIS);
+        }
+    }
+
+    // Hata veren adımın kilidi hemen bırakılır; bekleyen instance'lar kilit süresini beklemeden devralır
+    private void release(Step step, RuntimeException cause) {
+        try {
+            mongoTemplate.updateFirst(new Query(where("_id").is(step.id()).and("owner").is(owner)),
+                    new Update().set("status", FAILED).set("lockedUntil", new Date()).set("error", String.valueOf(cause)),
+                    COLLECTION);
+        } catch (RuntimeException e) {
+            cause.addSuppressed(e);
+        }
+        logger.error("Migration {} failed: {}", step.id(), step.description(), cause);
+    }
+
+    // İlk çalıştırma tekil insert ile, süresi dolmuş ya da bırakılmış kilit koşullu güncelleme ile alınır
+    private boolean tryLock(Step step) {
+        Date now = new Date();
+        Date lockedUntil = new Date(now.getTime() + lockMillis);
+        try {
+            mongoTemplate.insert(new Document("_id", step.id())
+                    .append("description", step.description())
+                    .append("status", RUNNING)
+                    .append("owner", owner)
+                    .append("startedAt", now)
+                    .append("lockedUntil", lockedUntil), COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            Document taken = mongoTemplate.findAndModify(
+                    new Query(where("_id").is(step.id()).and("status").in(RUNNING, FAILED).and("lockedUntil").lte(now)),
+                    new Update().set("status", RUNNING).set("owner", owner).set("startedAt", now)
+                            .set("lockedUntil", lockedUntil).unset("error"),
+                    FindAndModifyOptions.options().returnNew(true),
+                    Document.class, COLLECTION);
+            if (taken != null) {
+                logger.warn("Migration {} lock expired or released, taking over", step.id());
+            }
+            return taken != null;
+        }
+    }
+}
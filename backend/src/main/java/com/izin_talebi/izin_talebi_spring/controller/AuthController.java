@@ -1,5 +1,6 @@
 package com.izin_talebi.izin_talebi_spring.controller;
 
+import com.izin_talebi.izin_talebi_spring.dto.UserSummary;
 import com.izin_talebi.izin_talebi_spring.model.User;
 import com.izin_talebi.izin_talebi_spring.service.UserService;
 import com.izin_talebi.izin_talebi_spring.security.JwtUtil;
@@ -7,9 +8,10 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,40 +41,30 @@ public class AuthController {
             logger.debug("Login attempt for email: {}", authRequest.getEmail());
             logger.debug("Attempting to authenticate with password length: {}", authRequest.getPassword() != null ? authRequest.getPassword().length() : 0);
             
-            // Kullanıcıyı veritabanından al ve kontrol et
-            User user = userService.findByEmail(authRequest.getEmail())
-                    .orElseThrow(() -> {
-                        logger.error("User not found for email: {}", authRequest.getEmail());
-                        return new RuntimeException("Kullanıcı bulunamadı");
-                    });
-            
-            logger.debug("User found in database: {}", user.getAdSoyad());
-            logger.debug("User role: {}", user.getRole());
-            logger.debug("User enabled status: {}", user.isEnabled());
-
-            // Authentication denemesi
-            authenticationManager.authenticate(
+            // Authentication denemesi; kullanıcı tek okumada yüklenir ve principal olarak döner
+            Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(authRequest.getEmail(), authRequest.getPassword())
             );
-            
-            logger.debug("Authentication successful for user: {}", user.getEmail());
+            User user = (User) authentication.getPrincipal();
 
-            // UserDetails nesnesini oluştur
-            UserDetails userDetails = org.springframework.security.core.userdetails.User
-                    .withUsername(user.getEmail())
-                    .password(user.getPassword())
-                    .roles(user.getRole())
-                    .build();
+            logger.debug("Authentication successful for user: {}", user.getEmail());
+            logger.debug("User role: {}", user.getRole());
 
-            // Token oluştur
-            String token = jwtUtil.generateToken(userDetails);
+            // Token oluştur (rol, çalışan ID ve pozisyon claim olarak eklenir)
+            String token = jwtUtil.generateToken(user);
             logger.debug("Token generated successfully for user: {}", user.getEmail());
             
             Map<String, Object> response = new HashMap<>();
             response.put("token", token);
-            response.put("user", user);
+            response.put("user", UserSummary.of(user));
             
             return ResponseEntity.ok(response);
+        } catch (AuthenticationServiceException e) {
+            // Hash havuzu dolu ya da zaman aşımı: kimlik bilgisi hatası değil
+            logger.warn("Authentication service unavailable for email: {}", authRequest.getEmail(), e);
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Sunucu yoğun, lütfen tekrar deneyin");
+            return ResponseEntity.status(503).body(error);
         } catch (AuthenticationException e) {
             logger.error("Authentication failed for email: {}", authRequest.getEmail(), e);
             logger.error("Authentication error details: {}", e.getMessage());
@@ -102,7 +94,12 @@ public class AuthController {
                 .calisanId(registerRequest.getCalisanId())
                 .role(registerRequest.getRole() == null ? "USER" : registerRequest.getRole())
                 .build();
-        userService.registerUser(user);
+        try {
+            userService.registerUser(user);
+        } catch (AuthenticationServiceException e) {
+            logger.warn("Password hashing unavailable during registration", e);
+            return ResponseEntity.status(503).body("Sunucu yoğun, lütfen tekrar deneyin");
+        }
         return ResponseEntity.ok("Kayıt başarılı!");
     }
 
@@ -110,7 +107,7 @@ public class AuthController {
     @GetMapping("/debug/user/{email}")
     public ResponseEntity<?> debugUser(@PathVariable String email) {
         return userService.findByEmail(email)
-                .map(user -> ResponseEntity.ok(user))
+                .map(user -> ResponseEntity.ok(UserSummary.of(user)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
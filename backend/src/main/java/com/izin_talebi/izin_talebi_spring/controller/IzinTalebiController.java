@@ -1,88 +1,232 @@
 package com.izin_talebi.izin_talebi_spring.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.izin_talebi.izin_talebi_spring.dto.BulkDecisionRequest;
+import com.izin_talebi.izin_talebi_spring.dto.KeysetPage;
+import com.izin_talebi.izin_talebi_spring.dto.SparseFieldset;
+import com.izin_talebi.izin_talebi_spring.model.DateRange;
 import com.izin_talebi.izin_talebi_spring.model.IzinTalebi;
 import com.izin_talebi.izin_talebi_spring.model.User;
+import com.izin_talebi.izin_talebi_spring.security.CurrentUser;
+import com.izin_talebi.izin_talebi_spring.service.IzinTalebiBulkService;
 import com.izin_talebi.izin_talebi_spring.service.IzinTalebiService;
-import com.izin_talebi.izin_talebi_spring.service.UserService;
+import com.izin_talebi.izin_talebi_spring.service.LeaveExportService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/izin-talepleri")
 public class IzinTalebiController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_BULK_ITEMS = 1000;
+    private static final Set<String> LIST_FIELDS =
+            Set.of("id", "calisanId", "requestTime", "requestedDates", "requestStatus", "requestDesc",
+                    "analysisStatus", "analysisResult");
+
     private final IzinTalebiService izinTalebiService;
-    private final UserService userService;
+    private final LeaveExportService leaveExportService;
+    private final IzinTalebiBulkService izinTalebiBulkService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public IzinTalebiController(IzinTalebiService izinTalebiService, UserService userService) {
+    public IzinTalebiController(IzinTalebiService izinTalebiService, LeaveExportService leaveExportService,
+                                IzinTalebiBulkService izinTalebiBulkService, ObjectMapper objectMapper) {
         this.izinTalebiService = izinTalebiService;
-        this.userService = userService;
+        this.leaveExportService = leaveExportService;
+        this.izinTalebiBulkService = izinTalebiBulkService;
+        this.objectMapper = objectMapper;
     }
 
     // İzin talebi oluştur
     @PostMapping
     public ResponseEntity<?> createIzinTalebi(@RequestBody @Valid IzinTalebi izinTalebi,
-                                            @AuthenticationPrincipal UserDetails userDetails) {
-        User user = userService.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("Kullanıcı bulunamadı"));
-        
+                                            @CurrentUser User user) {
+        if (user == null) {
+            throw new RuntimeException("Kullanıcı bulunamadı");
+        }
+
         izinTalebi.setCalisanId(user.getCalisanId());
-        IzinTalebi created = izinTalebiService.createIzinTalebi(izinTalebi);
-        return ResponseEntity.ok(created);
+        try {
+            return ResponseEntity.ok(izinTalebiService.createIzinTalebi(izinTalebi));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
     }
 
-    // İzin taleplerini listele
+    // İzin taleplerini listele; cursor, size, status, from veya to verilirse sayfalı döner, fields ile alan seçilir
     @GetMapping
-    public ResponseEntity<?> listIzinTalepleri(@AuthenticationPrincipal UserDetails userDetails) {
-        User user = userService.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("Kullanıcı bulunamadı"));
-        
+    public ResponseEntity<?> listIzinTalepleri(@CurrentUser User user,
+                                               @RequestParam(required = false) String fields,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer size,
+                                               @RequestParam(required = false) String status,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (user == null) {
+            throw new RuntimeException("Kullanıcı bulunamadı");
+        }
+
+        // İK Uzmanı tüm talepleri, normal çalışan sadece kendi taleplerini görür
+        Integer calisanId = "İK Uzmanı".equals(user.getPozisyon()) ? null : user.getCalisanId();
+        SparseFieldset fieldset;
+        try {
+            fieldset = SparseFieldset.parse(fields, LIST_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        if (cursor != null || size != null || status != null || from != null || to != null) {
+            int pageSize = Math.min(size == null ? DEFAULT_PAGE_SIZE : Math.max(size, 1), MAX_PAGE_SIZE);
+            try {
+                KeysetPage<IzinTalebi> page =
+                        izinTalebiService.getIzinTalepleriPage(calisanId, status, from, to, cursor, pageSize, fieldset);
+                return ResponseEntity.ok(new KeysetPage<>(fieldset.project(page.getItems(), objectMapper), page.getNextCursor()));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
+
+        if (!fieldset.isAll()) {
+            return ResponseEntity.ok(fieldset.project(izinTalebiService.getIzinTalepleri(calisanId, fieldset), objectMapper));
+        }
+
         // İK Uzmanı ise tüm talepleri getir
-        if ("İK Uzmanı".equals(user.getPozisyon())) {
+        if (calisanId == null) {
             return ResponseEntity.ok(izinTalebiService.getAllIzinTalepleri());
         }
-        
+
         // Normal çalışan ise sadece kendi taleplerini getir
         return ResponseEntity.ok(izinTalebiService.getIzinTalepleriByCalisanId(user.getCalisanId()));
     }
 
+    // İzin taleplerini NDJSON (varsayılan) ya da CSV olarak akış halinde dışa aktar
+    @GetMapping("/export")
+    public void exportIzinTalepleri(@CurrentUser User user,
+                                    @RequestParam(defaultValue = "ndjson") String format,
+                                    @RequestParam(required = false) Integer calisanId,
+                                    @RequestParam(required = false) String status,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                    HttpServletResponse response) throws IOException {
+        if (user == null) {
+            throw new RuntimeException("Kullanıcı bulunamadı");
+        }
+        // Normal çalışan sadece kendi taleplerini dışa aktarabilir
+        if (!"İK Uzmanı".equals(user.getPozisyon())) {
+            calisanId = user.getCalisanId();
+        }
+
+        boolean csv = LeaveExportService.FORMAT_CSV.equalsIgnoreCase(format);
+        response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        response.setHeader("Content-Disposition",
+                "attachment; filename=\"izin-talepleri." + (csv ? "csv" : "ndjson") + "\"");
+        leaveExportService.exportIzinTalepleri(calisanId, status, from, to, format, response.getOutputStream());
+    }
+
+    // Verilen tarihlerde izinli çalışanlar (sadece İK); team pozisyon adıdır
+    @GetMapping("/izinliler")
+    public ResponseEntity<?> getIzinliler(@CurrentUser User user,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                          @RequestParam(required = false) String team,
+                                          @RequestParam(defaultValue = "false") boolean includePending) {
+        if (user == null || !"İK Uzmanı".equals(user.getPozisyon())) {
+            return ResponseEntity.status(403).body("Bu işlem için yetkiniz bulunmamaktadır.");
+        }
+        try {
+            return ResponseEntity.ok(izinTalebiService.getIzinliler(new DateRange(from, to), team, includePending));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
+    }
+
+    // Açıklama analizinin durumu; istemci KUYRUKTA dışında bir değer görene kadar yoklar
+    @GetMapping("/{id}/analiz")
+    public ResponseEntity<?> getAnalysis(@PathVariable String id,
+                                         @CurrentUser User user) {
+        if (user == null) {
+            throw new RuntimeException("Kullanıcı bulunamadı");
+        }
+        return izinTalebiService.getIzinTalebiById(id)
+                .<ResponseEntity<?>>map(izinTalebi -> {
+                    // Normal çalışan sadece kendi talebinin analizini görebilir
+                    if (!"İK Uzmanı".equals(user.getPozisyon()) && !izinTalebi.getCalisanId().equals(user.getCalisanId())) {
+                        return ResponseEntity.status(403).body("Bu işlem için yetkiniz bulunmamaktadır.");
+                    }
+                    Map<String, Object> analysis = new LinkedHashMap<>();
+                    analysis.put("id", izinTalebi.getId());
+                    analysis.put("analysisStatus", izinTalebi.getAnalysisStatus());
+                    analysis.put("analysisResult", izinTalebi.getAnalysisResult());
+                    return ResponseEntity.ok(analysis);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     // İzin talebini onayla
     @PutMapping("/{id}/onayla")
     public ResponseEntity<?> approveIzinTalebi(@PathVariable String id,
-                                             @AuthenticationPrincipal UserDetails userDetails) {
-        User user = userService.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("Kullanıcı bulunamadı"));
-        
-        if (!"İK Uzmanı".equals(user.getPozisyon())) {
+                                             @CurrentUser User user) {
+        if (user == null || !"İK Uzmanı".equals(user.getPozisyon())) {
             return ResponseEntity.status(403).body("Bu işlem için yetkiniz bulunmamaktadır.");
         }
-        
-        return izinTalebiService.approveIzinTalebi(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+
+        try {
+            return izinTalebiService.approveIzinTalebi(id)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Toplu onay/red (sadece İK); kalem bazında sonuç döner, başarısız kalemler diğerlerini etkilemez
+    @PostMapping("/toplu-karar")
+    public ResponseEntity<?> decideBulk(@RequestBody BulkDecisionRequest request,
+                                        @CurrentUser User user) {
+        if (user == null || !"İK Uzmanı".equals(user.getPozisyon())) {
+            return ResponseEntity.status(403).body("Bu işlem için yetkiniz bulunmamaktadır.");
+        }
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            return ResponseEntity.badRequest().body("En az bir talep gönderilmeli");
+        }
+        if (request.getItems().size() > MAX_BULK_ITEMS) {
+            return ResponseEntity.badRequest().body("Tek istekte en fazla " + MAX_BULK_ITEMS + " talep gönderilebilir");
+        }
+        return ResponseEntity.ok(izinTalebiBulkService.decide(request.getItems()));
     }
 
     // İzin talebini reddet
     @PutMapping("/{id}/reddet")
     public ResponseEntity<?> rejectIzinTalebi(@PathVariable String id,
-                                            @AuthenticationPrincipal UserDetails userDetails) {
-        User user = userService.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("Kullanıcı bulunamadı"));
-        
-        if (!"İK Uzmanı".equals(user.getPozisyon())) {
+                                            @CurrentUser User user) {
+        if (user == null || !"İK Uzmanı".equals(user.getPozisyon())) {
             return ResponseEntity.status(403).body("Bu işlem için yetkiniz bulunmamaktadır.");
         }
-        
-        return izinTalebiService.rejectIzinTalebi(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+
+        try {
+            return izinTalebiService.rejectIzinTalebi(id)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
     }
-} 
\ No newline at end of file
+}
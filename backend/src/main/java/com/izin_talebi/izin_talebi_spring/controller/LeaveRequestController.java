@@ -1,55 +1,101 @@
 package com.izin_talebi.izin_talebi_spring.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.izin_talebi.izin_talebi_spring.dto.KeysetPage;
+import com.izin_talebi.izin_talebi_spring.dto.SparseFieldset;
 import com.izin_talebi.izin_talebi_spring.model.LeaveRequest;
 import com.izin_talebi.izin_talebi_spring.model.User;
+import com.izin_talebi.izin_talebi_spring.security.CurrentUser;
+import com.izin_talebi.izin_talebi_spring.service.LeaveExportService;
 import com.izin_talebi.izin_talebi_spring.service.LeaveRequestService;
-import com.izin_talebi.izin_talebi_spring.service.UserService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/leaves")
 public class LeaveRequestController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final Set<String> LIST_FIELDS = Set.of(
+            "id", "user", "startDate", "endDate", "type", "status", "description", "createdAt", "updatedAt");
+
     private final LeaveRequestService leaveRequestService;
-    private final UserService userService;
+    private final LeaveExportService leaveExportService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public LeaveRequestController(LeaveRequestService leaveRequestService, UserService userService) {
+    public LeaveRequestController(LeaveRequestService leaveRequestService, LeaveExportService leaveExportService,
+                                  ObjectMapper objectMapper) {
         this.leaveRequestService = leaveRequestService;
-        this.userService = userService;
+        this.leaveExportService = leaveExportService;
+        this.objectMapper = objectMapper;
     }
 
     // Kullanıcı izin talebi oluşturur
     @PostMapping
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<?> createLeaveRequest(@RequestBody @Valid LeaveRequest request,
-                                                @AuthenticationPrincipal UserDetails userDetails) {
-        Optional<User> userOpt = userService.findByEmail(userDetails.getUsername());
-        if (userOpt.isEmpty()) {
+                                                @CurrentUser User user) {
+        if (user == null) {
             return ResponseEntity.status(401).body("Kullanıcı bulunamadı");
         }
-        LeaveRequest created = leaveRequestService.createLeaveRequest(userOpt.get(), request);
-        return ResponseEntity.ok(created);
+        try {
+            return ResponseEntity.ok(leaveRequestService.createLeaveRequest(user, request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
     }
 
     // Tüm izin taleplerini listele (admin veya user kendi taleplerini görebilir)
     @GetMapping
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
-    public ResponseEntity<?> listLeaveRequests(@AuthenticationPrincipal UserDetails userDetails) {
-        Optional<User> userOpt = userService.findByEmail(userDetails.getUsername());
-        if (userOpt.isEmpty()) {
+    public ResponseEntity<?> listLeaveRequests(@CurrentUser User user,
+                                               @RequestParam(required = false) String fields,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer size,
+                                               @RequestParam(required = false) String status,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (user == null) {
             return ResponseEntity.status(401).body("Kullanıcı bulunamadı");
         }
-        User user = userOpt.get();
+        User owner = "ADMIN".equals(user.getRole()) ? null : user;
+        SparseFieldset fieldset;
+        try {
+            fieldset = SparseFieldset.parse(fields, LIST_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        // cursor, size, status, from veya to verilirse sayfalı döner, fields ile alan seçilir
+        if (cursor != null || size != null || status != null || from != null || to != null) {
+            int pageSize = Math.min(size == null ? DEFAULT_PAGE_SIZE : Math.max(size, 1), MAX_PAGE_SIZE);
+            try {
+                KeysetPage<LeaveRequest> page =
+                        leaveRequestService.getLeaveRequestsPage(owner, status, from, to, cursor, pageSize, fieldset);
+                return ResponseEntity.ok(new KeysetPage<>(fieldset.project(page.getItems(), objectMapper), page.getNextCursor()));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
+
+        if (!fieldset.isAll()) {
+            return ResponseEntity.ok(fieldset.project(leaveRequestService.getLeaveRequests(owner, fieldset), objectMapper));
+        }
         if ("ADMIN".equals(user.getRole())) {
             return ResponseEntity.ok(leaveRequestService.getAllLeaveRequests());
         } else {
@@ -57,6 +103,21 @@ public class LeaveRequestController {
         }
     }
 
+    // İzin taleplerini NDJSON (varsayılan) ya da CSV olarak akış halinde dışa aktar (sadece admin)
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportLeaveRequests(@RequestParam(defaultValue = "ndjson") String format,
+                                    @RequestParam(required = false) String status,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                    HttpServletResponse response) throws IOException {
+        boolean csv = LeaveExportService.FORMAT_CSV.equalsIgnoreCase(format);
+        response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        response.setHeader("Content-Disposition",
+                "attachment; filename=\"leave-requests." + (csv ? "csv" : "ndjson") + "\"");
+        leaveExportService.exportLeaveRequests(null, status, from, to, format, response.getOutputStream());
+    }
+
     // İzin talebini onayla (sadece admin)
     @PostMapping("/{id}/approve")
     @PreAuthorize("hasRole('ADMIN')")
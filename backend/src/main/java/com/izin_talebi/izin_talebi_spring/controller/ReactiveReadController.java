@@ -0,0 +1,68 @@
+package com.izin_talebi.izin_talebi_spring.controller;
+
+import com.izin_talebi.izin_talebi_spring.dto.UserSummary;
+import com.izin_talebi.izin_talebi_spring.model.IzinTalebi;
+import com.izin_talebi.izin_talebi_spring.model.LeaveRequest;
+import com.izin_talebi.izin_talebi_spring.model.User;
+import com.izin_talebi.izin_talebi_spring.security.CurrentUser;
+import com.izin_talebi.izin_talebi_spring.service.ReactiveLeaveQueryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Okuma ağırlıklı uçların reaktif karşılıkları. Flux/Mono dönen metotlar için servlet thread'i
+ * sorgu başlatılınca serbest kalır; NDJSON yanıtı her kayıt yazıldıkça cursor'dan yenisi istenir.
+ */
+@RestController
+@RequestMapping("/api/reactive")
+public class ReactiveReadController {
+
+    private final ReactiveLeaveQueryService reactiveLeaveQueryService;
+
+    @Autowired
+    public ReactiveReadController(ReactiveLeaveQueryService reactiveLeaveQueryService) {
+        this.reactiveLeaveQueryService = reactiveLeaveQueryService;
+    }
+
+    // /api/izin-talepleri ile aynı görünürlük: İK Uzmanı tüm talepleri, çalışan kendi taleplerini görür
+    @GetMapping(value = "/izin-talepleri", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<IzinTalebi>> streamIzinTalepleri(@CurrentUser User user,
+                                                                @RequestParam(required = false) String status,
+                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (user == null) {
+            return ResponseEntity.status(401).build();
+        }
+        Integer calisanId = "İK Uzmanı".equals(user.getPozisyon()) ? null : user.getCalisanId();
+        return ResponseEntity.ok(reactiveLeaveQueryService.getIzinTalepleri(calisanId, status, from, to));
+    }
+
+    // /api/leaves ile aynı görünürlük: admin tüm talepleri, kullanıcı kendi taleplerini görür
+    @GetMapping(value = "/leaves", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<Flux<LeaveRequest>> streamLeaveRequests(@CurrentUser User user,
+                                                                  @RequestParam(required = false) String status,
+                                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (user == null) {
+            return ResponseEntity.status(401).build();
+        }
+        User owner = "ADMIN".equals(user.getRole()) ? null : user;
+        return ResponseEntity.ok(reactiveLeaveQueryService.getLeaveRequests(owner, status, from, to));
+    }
+
+    @GetMapping("/users/{calisanId}")
+    public Mono<ResponseEntity<UserSummary>> getUserByCalisanId(@PathVariable Integer calisanId) {
+        return reactiveLeaveQueryService.findSummaryByCalisanId(calisanId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
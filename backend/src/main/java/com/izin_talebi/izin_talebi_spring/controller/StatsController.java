@@ -0,0 +1,119 @@
+package com.izin_talebi.izin_talebi_spring.controller;
+
+import com.izin_talebi.izin_talebi_spring.model.User;
+import com.izin_talebi.izin_talebi_spring.security.CurrentUser;
+import com.izin_talebi.izin_talebi_spring.security.JwtUtil;
+import com.izin_talebi.izin_talebi_spring.security.PasswordHashingService;
+import com.izin_talebi.izin_talebi_spring.service.LeaveAnalysisQueue;
+import com.izin_talebi.izin_talebi_spring.service.LlmResponseCache;
+import com.izin_talebi.izin_talebi_spring.service.OpenAIHttpClient;
+import com.izin_talebi.izin_talebi_spring.service.OpenAIService;
+import com.izin_talebi.izin_talebi_spring.service.UserCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Önbellek, kuyruk ve devre durumları işletime dair bilgi içerir; yalnızca İK Uzmanı ve ADMIN görür
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    private final JwtUtil jwtUtil;
+    private final UserCache userCache;
+    private final PasswordHashingService passwordHashingService;
+    private final OpenAIHttpClient openAIHttpClient;
+    private final LlmResponseCache llmResponseCache;
+    private final LeaveAnalysisQueue leaveAnalysisQueue;
+    private final OpenAIService openAIService;
+
+    @Autowired
+    public StatsController(JwtUtil jwtUtil, UserCache userCache, PasswordHashingService passwordHashingService,
+                           OpenAIHttpClient openAIHttpClient, LlmResponseCache llmResponseCache,
+                           LeaveAnalysisQueue leaveAnalysisQueue, OpenAIService openAIService) {
+        this.jwtUtil = jwtUtil;
+        this.userCache = userCache;
+        this.passwordHashingService = passwordHashingService;
+        this.openAIHttpClient = openAIHttpClient;
+        this.llmResponseCache = llmResponseCache;
+        this.leaveAnalysisQueue = leaveAnalysisQueue;
+        this.openAIService = openAIService;
+    }
+
+    // JWT claim önbelleği sayaçları
+    @GetMapping("/jwt")
+    public ResponseEntity<?> jwtStats(@CurrentUser User user) {
+        if (!isAuthorized(user)) {
+            return ResponseEntity.status(403).body("Bu işlem için yetkiniz bulunmamaktadır.");
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", jwtUtil.getCacheHits());
+        stats.put("misses", jwtUtil.getCacheMisses());
+        stats.put("size", jwtUtil.getCacheSize());
+        return ResponseEntity.ok(stats);
+    }
+
+    // Kullanıcı önbelleği isabet oranı ve tahliye sayıları
+    @GetMapping("/users")
+    public ResponseEntity<?> userCacheStats(@CurrentUser User user) {
+        if (!isAuthorized(user)) {
+            return ResponseEntity.status(403).body("Bu işlem için yetkiniz bulunmamaktadır.");
+        }
+        return ResponseEntity.ok(userCache.stats());
+    }
+
+    // Şifre hash havuzunun maliyet ve kuyruk durumu
+    @GetMapping("/password-hashing")
+    public ResponseEntity<?> passwordHashingStats(@CurrentUser User user) {
+        if (!isAuthorized(user)) {
+            return ResponseEntity.status(403).body("Bu işlem için yetkiniz bulunmamaktadır.");
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cost", passwordHashingService.getCost());
+        stats.put("active", passwordHashingService.getActiveCount());
+        stats.put("queueDepth", passwordHashingService.getQueueDepth());
+        return ResponseEntity.ok(stats);
+    }
+
+    // OpenAI istemcisinin devre durumu, eşzamanlılık havuzu ve gecikme histogramı
+    @GetMapping("/openai")
+    public ResponseEntity<?> openAIStats(@CurrentUser User user) {
+        if (!isAuthorized(user)) {
+            return ResponseEntity.status(403).body("Bu işlem için yetkiniz bulunmamaktadır.");
+        }
+        return ResponseEntity.ok(openAIHttpClient.stats());
+    }
+
+    // LLM yanıt önbelleği isabet oranı ve dış çağrı yapılmadığı için kazanılan süre
+    @GetMapping("/openai-cache")
+    public ResponseEntity<?> openAICacheStats(@CurrentUser User user) {
+        if (!isAuthorized(user)) {
+            return ResponseEntity.status(403).body("Bu işlem için yetkiniz bulunmamaktadır.");
+        }
+        return ResponseEntity.ok(llmResponseCache.stats());
+    }
+
+    // Mikro toplama: toplu çağrı sayısı ve ortalama topluluk boyutu
+    @GetMapping("/openai-batch")
+    public ResponseEntity<?> openAIBatchStats(@CurrentUser User user) {
+        if (!isAuthorized(user)) {
+            return ResponseEntity.status(403).body("Bu işlem için yetkiniz bulunmamaktadır.");
+        }
+        return ResponseEntity.ok(openAIService.batchStats());
+    }
+
+    // Analiz kuyruğunun birikmesi ve işçi durumu
+    @GetMapping("/analysis-queue")
+    public ResponseEntity<?> analysisQueueStats(@CurrentUser User user) {
+        if (!isAuthorized(user)) {
+            return ResponseEntity.status(403).body("Bu işlem için yetkiniz bulunmamaktadır.");
+        }
+        return ResponseEntity.ok(leaveAnalysisQueue.stats());
+    }
+
+    private static boolean isAuthorized(User user) {
+        return user != null && ("İK Uzmanı".equals(user.getPozisyon()) || "ADMIN".equals(user.getRole()));
+    }
+}
@@ -1,6 +1,6 @@
 package com.izin_talebi.izin_talebi_spring.controller;
 
-import com.izin_talebi.izin_talebi_spring.model.User;
+import com.izin_talebi.izin_talebi_spring.dto.UserSummary;
 import com.izin_talebi.izin_talebi_spring.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -19,8 +19,8 @@ public class UserController {
 
     @GetMapping("/{calisanId}")
     public ResponseEntity<?> getUserByCalisanId(@PathVariable Integer calisanId) {
-        return userService.findByCalisanId(calisanId)
+        return userService.findSummaryByCalisanId(calisanId)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
-} 
\ No newline at end of file
+}
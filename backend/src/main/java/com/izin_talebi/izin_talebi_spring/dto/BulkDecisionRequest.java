@@ -0,0 +1,25 @@
+package com.izin_talebi.izin_talebi_spring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Toplu onay/red isteği. decision "ONAYLA" ya da "REDDET" olmalıdır.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDecisionRequest {
+    private List<Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private String id;
+        private String decision;
+    }
+}
@@ -0,0 +1,25 @@
+package com.izin_talebi.izin_talebi_spring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Toplu karardaki tek bir talebin sonucu. Başarısız kalemler diğerlerini geri almaz.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDecisionResult {
+    public static final String OK = "OK";
+    public static final String NOT_FOUND = "NOT_FOUND";
+    public static final String CONFLICT = "CONFLICT";
+    public static final String INVALID = "INVALID";
+    public static final String INSUFFICIENT_BALANCE = "INSUFFICIENT_BALANCE";
+    public static final String CAPACITY_FULL = "CAPACITY_FULL";
+
+    private String id;
+    private String decision;
+    private String status;
+    private String message;
+}
@@ -0,0 +1,43 @@
+package com.izin_talebi.izin_talebi_spring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * _id'ye göre azalan sırada bir sayfa kayıt ve sonraki sayfa için opak devam token'ı.
+ * Son sayfada nextCursor null'dır.
+ */
+@Data
+@AllArgsConstructor
+public class KeysetPage<T> {
+    private List<T> items;
+    private String nextCursor;
+
+    // size + 1 kayıt çekilir; fazlası varsa sonraki sayfa mevcuttur
+    public static <T> KeysetPage<T> of(List<T> fetched, int size, Function<T, String> idOf) {
+        if (fetched.size() <= size) {
+            return new KeysetPage<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, size);
+        return new KeysetPage<>(items, encodeCursor(idOf.apply(items.get(size - 1))));
+    }
+
+    public static String encodeCursor(String lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ObjectId decodeCursor(String cursor) {
+        try {
+            String id = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return new ObjectId(id);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Geçersiz sayfa token'ı", e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.izin_talebi.izin_talebi_spring.dto;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.*;
+
+/**
+ * Liste uçlarındaki ?fields= parametresi. Seçilen alanlar hem Mongo projeksiyonuna
+ * hem de yanıt gövdesine uygulanır; parametre yoksa tüm alanlar döner.
+ */
+public final class SparseFieldset {
+
+    private static final TypeReference<LinkedHashMap<String, Object>> ROW_TYPE = new TypeReference<>() {
+    };
+
+    private final Set<String> fields;
+
+    private SparseFieldset(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    public static SparseFieldset all() {
+        return new SparseFieldset(null);
+    }
+
+    public static SparseFieldset parse(String param, Set<String> allowed) {
+        if (param == null || param.isBlank()) {
+            return all();
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        for (String field : param.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new IllegalArgumentException("Bilinmeyen alan: " + name);
+            }
+            fields.add(name);
+        }
+        return fields.isEmpty() ? all() : new SparseFieldset(fields);
+    }
+
+    public boolean isAll() {
+        return fields == null;
+    }
+
+    // _id her zaman döner; sayfalama token'ı için gerekir
+    public Query applyTo(Query query) {
+        if (!isAll()) {
+            query.fields().include(fields.toArray(new String[0]));
+        }
+        return query;
+    }
+
+    public List<Object> project(List<?> items, ObjectMapper objectMapper) {
+        if (isAll()) {
+            return Collections.unmodifiableList(items);
+        }
+        List<Object> rows = new ArrayList<>(items.size());
+        for (Object item : items) {
+            Map<String, Object> row = objectMapper.convertValue(item, ROW_TYPE);
+            row.keySet().retainAll(fields);
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,52 @@
+package com.izin_talebi.izin_talebi_spring.dto;
+
+import com.izin_talebi.izin_talebi_spring.model.User;
+import lombok.*;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * İstemciye dönen kullanıcı görünümü. Şifre, enabled ve türetilmiş authorities alanlarını içermez.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummary {
+    // Mongo projeksiyonunda okunacak alanlar; şifre ve tokenVersion okunmaz
+    public static final String[] FIELDS = {
+            "calisanId", "adSoyad", "pozisyon", "role", "workStartDate", "usedDays", "remainingDays", "email"
+    };
+
+    private String id;
+    private Integer calisanId;
+    private String adSoyad;
+    private String pozisyon;
+    private String role;
+    private String workStartDate;
+    private Integer usedDays;
+    private Integer remainingDays;
+    private String email;
+
+    // calisanId ile tek kullanıcı, yalnızca özet alanlarıyla
+    public static Query byCalisanId(Integer calisanId) {
+        Query query = new Query(where("calisanId").is(calisanId));
+        query.fields().include(FIELDS);
+        return query;
+    }
+
+    public static UserSummary of(User user) {
+        return UserSummary.builder()
+                .id(user.getId())
+                .calisanId(user.getCalisanId())
+                .adSoyad(user.getAdSoyad())
+                .pozisyon(user.getPozisyon())
+                .role(user.getRole())
+                .workStartDate(user.getWorkStartDate())
+                .usedDays(user.getUsedDays())
+                .remainingDays(user.getRemainingDays())
+                .email(user.getEmail())
+                .build();
+    }
+}
@@ -0,0 +1,31 @@
+package com.izin_talebi.izin_talebi_spring.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * İzin talebi açıklamasının LLM analizi için kuyruk kaydı. id analiz edilen talebin id'sidir,
+ * böylece aynı talep iki kez kuyruğa giremez. Çalışan instance kaydı lockedUntil'e kadar kiralar;
+ * süre dolarsa kayıt başka bir instance tarafından tekrar alınır.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "analysisJobs")
+public class AnalysisJob {
+    @Id
+    private String id;
+    private String text;
+    private String status;
+    private int attempts;
+    private Date createdAt;
+    // Bu andan önce alınmaz (tekrar denemelerde bekleme)
+    private Date availableAt;
+    private String owner;
+    private Date lockedUntil;
+    private String lastError;
+}
@@ -0,0 +1,64 @@
+package com.izin_talebi.izin_talebi_spring.model;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * İki ucu dahil tarih aralığı. İzin taleplerindeki "dd.MM.yyyy-dd.MM.yyyy" metni buradan ayrıştırılır.
+ * Takvim ve bellek içi indeksler yıl ve gün başına yer ayırdığından yıllar sabit bir pencereyle,
+ * izin talebi aralıkları da en fazla bir yılla sınırlıdır.
+ */
+public record DateRange(LocalDate start, LocalDate end) {
+
+    public static final int MIN_YEAR = 2000;
+    public static final int MAX_YEAR = 2099;
+    public static final int MAX_LEAVE_DAYS = 366;
+
+    private static final DateTimeFormatter REQUESTED_DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    public DateRange {
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("İzin tarihleri belirtilmemiş");
+        }
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("Bitiş tarihi başlangıçtan önce olamaz");
+        }
+        if (start.getYear() < MIN_YEAR || end.getYear() > MAX_YEAR) {
+            throw new IllegalArgumentException("İzin tarihleri " + MIN_YEAR + "-" + MAX_YEAR + " yılları arasında olmalı");
+        }
+    }
+
+    // Kullanıcıdan gelen izin aralığı; en fazla MAX_LEAVE_DAYS gün
+    public static DateRange leave(LocalDate start, LocalDate end) {
+        DateRange range = new DateRange(start, end);
+        if (range.days() > MAX_LEAVE_DAYS) {
+            throw new IllegalArgumentException("Bir izin talebi en fazla " + MAX_LEAVE_DAYS + " gün olabilir");
+        }
+        return range;
+    }
+
+    // Tek tarih verilirse tek günlük aralık döner
+    public static DateRange parse(String requestedDates) {
+        if (requestedDates == null || requestedDates.isBlank()) {
+            throw new IllegalArgumentException("İzin tarihleri belirtilmemiş");
+        }
+        String[] parts = requestedDates.split("-");
+        try {
+            LocalDate start = LocalDate.parse(parts[0].trim(), REQUESTED_DATE_FORMAT);
+            LocalDate end = parts.length > 1 ? LocalDate.parse(parts[1].trim(), REQUESTED_DATE_FORMAT) : start;
+            return leave(start, end);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Geçersiz izin tarihleri: " + requestedDates, e);
+        }
+    }
+
+    public long days() {
+        return ChronoUnit.DAYS.between(start, end) + 1;
+    }
+
+    public boolean overlaps(DateRange other) {
+        return !start.isAfter(other.end) && !other.start.isAfter(end);
+    }
+}
@@ -0,0 +1,28 @@
+package com.izin_talebi.izin_talebi_spring.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Excel içe aktarımının dosya bazında ilerlemesi. id dosya içeriğinin SHA-256 özetidir;
+ * yarıda kalan aktarım lastRow'dan devam eder, tamamlanan dosya tekrar okunmaz.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "importProgress")
+public class ImportProgress {
+    @Id
+    private String id;
+    private String fileName;
+    private int lastRow;
+    private long usersInserted;
+    private long requestsInserted;
+    private long rowsSkipped;
+    private boolean completed;
+    private LocalDateTime updatedAt;
+}
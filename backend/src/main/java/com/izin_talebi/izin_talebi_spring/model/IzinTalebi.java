@@ -2,6 +2,8 @@ package com.izin_talebi.izin_talebi_spring.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
@@ -9,6 +11,12 @@ import org.springframework.data.mongodb.core.mapping.Document;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "izinTalepleri")
+@CompoundIndexes({
+        @CompoundIndex(name = "calisanId_requestStatus_requestTime", def = "{'calisanId': 1, 'requestStatus': 1, 'requestTime': -1}"),
+        @CompoundIndex(name = "calisanId_id", def = "{'calisanId': 1, '_id': -1}"),
+        @CompoundIndex(name = "requestStatus_id", def = "{'requestStatus': 1, '_id': -1}"),
+        @CompoundIndex(name = "analysisStatus_id", def = "{'analysisStatus': 1, '_id': 1}")
+})
 public class IzinTalebi {
     @Id
     private String id;
@@ -17,4 +25,7 @@ public class IzinTalebi {
     private String requestedDates;
     private String requestStatus;
     private String requestDesc;
+    // Açıklamanın LLM analizi arka planda yapılır; durum LeaveAnalysisQueue sabitlerindendir
+    private String analysisStatus;
+    private String analysisResult;
 } 
\ No newline at end of file
@@ -2,19 +2,24 @@ package com.izin_talebi.izin_talebi_spring.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.mapping.DBRef;
 
 import java.time.LocalDate;
 
 @Data
 @Document(collection = "leave_requests")
+@CompoundIndexes({
+        @CompoundIndex(name = "userId_status_id", def = "{'user.userId': 1, 'status': 1, '_id': -1}"),
+        @CompoundIndex(name = "status_id", def = "{'status': 1, '_id': -1}")
+})
 public class LeaveRequest {
     @Id
     private String id;
     
-    @DBRef
-    private User user;
+    // Kullanıcı özeti gömülü tutulur; UserService kullanıcı güncellemelerinde senkronlar
+    private UserSnapshot user;
     
     private LocalDate startDate;
     private LocalDate endDate;
@@ -2,6 +2,7 @@ package com.izin_talebi.izin_talebi_spring.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -11,13 +12,14 @@ import java.util.Collection;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "calisanlar")
 public class User implements UserDetails {
     @Id
     private String id;
+    @Indexed
     private Integer calisanId;
     private String adSoyad;
     private String pozisyon;
@@ -25,9 +27,13 @@ public class User implements UserDetails {
     private String workStartDate;
     private Integer usedDays;
     private Integer remainingDays;
+    @Indexed(unique = true)
     private String email;
     private String password;
+    @Builder.Default
     private boolean enabled = true;
+    // Rol, pozisyon ya da enabled değiştiğinde artırılır; eski token'lar durumsuz modda reddedilir
+    private int tokenVersion;
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
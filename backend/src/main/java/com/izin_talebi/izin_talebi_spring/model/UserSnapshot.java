@@ -0,0 +1,27 @@
+package com.izin_talebi.izin_talebi_spring.model;
+
+import lombok.*;
+
+/**
+ * İzin talebine gömülen, listelemede ihtiyaç duyulan kullanıcı alanları.
+ * DBRef yerine kullanılır; listeleme kayıt başına ek kullanıcı sorgusu yapmaz.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSnapshot {
+    private String userId;
+    private Integer calisanId;
+    private String adSoyad;
+    private String pozisyon;
+
+    public static UserSnapshot of(User user) {
+        return UserSnapshot.builder()
+                .userId(user.getId())
+                .calisanId(user.getCalisanId())
+                .adSoyad(user.getAdSoyad())
+                .pozisyon(user.getPozisyon())
+                .build();
+    }
+}
@@ -0,0 +1,12 @@
+package com.izin_talebi.izin_talebi_spring.repository;
+
+import com.izin_talebi.izin_talebi_spring.model.IzinTalebi;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+// IzinTalebiRepository'nin reaktif sürücü üzerindeki karşılığı; sadece okuma uçları kullanır
+@Repository
+public interface ReactiveIzinTalebiRepository extends ReactiveMongoRepository<IzinTalebi, String> {
+    Flux<IzinTalebi> findByCalisanId(Integer calisanId);
+}
@@ -0,0 +1,12 @@
+package com.izin_talebi.izin_talebi_spring.repository;
+
+import com.izin_talebi.izin_talebi_spring.model.LeaveRequest;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+// LeaveRequestRepository'nin reaktif sürücü üzerindeki karşılığı; sadece okuma uçları kullanır
+@Repository
+public interface ReactiveLeaveRequestRepository extends ReactiveMongoRepository<LeaveRequest, String> {
+    Flux<LeaveRequest> findByUserUserId(String userId);
+}
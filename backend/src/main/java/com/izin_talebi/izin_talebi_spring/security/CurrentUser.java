@@ -0,0 +1,13 @@
+package com.izin_talebi.izin_talebi_spring.security;
+
+import java.lang.annotation.*;
+
+/**
+ * Controller parametresine giriş yapmış kullanıcının {@link com.izin_talebi.izin_talebi_spring.model.User}
+ * nesnesini enjekte eder. Kullanıcı istek başına bir kez çözülür.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
@@ -2,31 +2,44 @@ package com.izin_talebi.izin_talebi_spring.security;
 
 import com.izin_talebi.izin_talebi_spring.model.User;
 import com.izin_talebi.izin_talebi_spring.repository.UserRepository;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import com.izin_talebi.izin_talebi_spring.service.UserCache;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final MongoTemplate mongoTemplate;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, UserCache userCache, MongoTemplate mongoTemplate) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.mongoTemplate = mongoTemplate;
     }
 
+    // model.User zaten UserDetails; entity'nin kendisi principal olur, controller'lar tekrar sorgulamaz
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        return userRepository.findByEmail(email)
-                .map(user -> new org.springframework.security.core.userdetails.User(
-                        user.getEmail(),
-                        user.getPassword(),
-                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole()))
-                ))
+        return userCache.findByEmail(email, () -> userRepository.findByEmail(email))
                 .orElseThrow(() -> new UsernameNotFoundException("Kullanıcı bulunamadı: " + email));
     }
-} 
\ No newline at end of file
+
+    // Yalnızca şifre alanını güncelle; eşzamanlı bakiye güncellemelerinin üzerine yazma
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = (User) userDetails;
+        mongoTemplate.updateFirst(query(where("_id").is(user.getId())), Update.update("password", newPassword), User.class);
+        userCache.evict(user);
+        return userDetails;
+    }
+}
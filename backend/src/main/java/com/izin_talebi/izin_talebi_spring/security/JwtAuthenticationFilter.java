@@ -1,14 +1,20 @@
 package com.izin_talebi.izin_talebi_spring.security;
 
+import com.izin_talebi.izin_talebi_spring.model.User;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.slf4j.Logger;
@@ -22,11 +28,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    // true ise kullanıcı token claim'lerinden kurulur; yalnızca enabled ve tokenVersion önbellekten doğrulanır
+    private final boolean statelessAuth;
+    // Flux/Mono dönen uçlarda yanıt ASYNC dispatch ile tamamlanır; filtre o dispatch'te çalışmadığı
+    // için kimlik istek niteliğine yazılır ve SecurityContextHolderFilter oradan geri yükler
+    private final SecurityContextRepository securityContextRepository = new RequestAttributeSecurityContextRepository();
 
     @Autowired
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService,
+                                   @Value("${jwt.stateless-auth:false}") boolean statelessAuth) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.statelessAuth = statelessAuth;
     }
 
     @Override
@@ -48,7 +61,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             logger.debug("Extracted user email: {}", userEmail);
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                UserDetails userDetails = null;
+                if (statelessAuth) {
+                    User claimsUser = jwtUtil.extractUser(jwt);
+                    if (claimsUser != null && !isCurrent(claimsUser)) {
+                        logger.warn("Token for user {} was revoked", userEmail);
+                        filterChain.doFilter(request, response);
+                        return;
+                    }
+                    userDetails = claimsUser;
+                }
+                if (userDetails == null) {
+                    // Veritabanı modu ya da claim'leri olmayan eski token
+                    userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                }
                 logger.debug("Loaded user details: {}", userDetails.getUsername());
                 
                 if (jwtUtil.validateToken(jwt, userDetails)) {
@@ -58,7 +84,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                         userDetails.getAuthorities()
                     );
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                    SecurityContext context = SecurityContextHolder.getContext();
+                    context.setAuthentication(authToken);
+                    securityContextRepository.saveContext(context, request, response);
                     logger.debug("Authentication successful for user: {}", userEmail);
                 } else {
                     logger.warn("Token validation failed for user: {}", userEmail);
@@ -72,4 +100,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         filterChain.doFilter(request, response);
     }
-} 
\ No newline at end of file
+
+    // Kullanıcı silinmiş, devre dışı bırakılmış ya da rolü/pozisyonu değişmişse (tokenVersion artar)
+    // token süresi dolmadan geçersiz sayılır. Durumsuz modda da istek başına bu tek okuma kalır; UserCache'ten
+    // karşılanır, veritabanına yalnızca önbellekte yoksa ya da TTL dolduysa gidilir (user-cache.ttl-seconds)
+    private boolean isCurrent(User claimsUser) {
+        UserDetails current;
+        try {
+            current = userDetailsService.loadUserByUsername(claimsUser.getEmail());
+        } catch (UsernameNotFoundException e) {
+            return false;
+        }
+        return current instanceof User user
+                && user.isEnabled()
+                && user.getTokenVersion() == claimsUser.getTokenVersion();
+    }
+}
@@ -1,29 +1,50 @@
 package com.izin_talebi.izin_talebi_spring.security;
 
+import com.izin_talebi.izin_talebi_spring.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.Base64;
 
 @Component
 public class JwtUtil {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
-    
+
     // Sabit bir secret key kullan
     private static final String SECRET_KEY = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
     private final SecretKey key = Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET_KEY));
 
+    // Parser thread-safe, her istekte yeniden kurmaya gerek yok
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
+
+    // Doğrulanmış claim'ler token özetine göre, token'ın exp anına kadar saklanır
+    private final Map<String, CachedClaims> claimsCache = new ConcurrentHashMap<>();
+    private final int claimsCacheMaxSize;
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
+    public JwtUtil(@Value("${jwt.claims-cache.max-size:10000}") int claimsCacheMaxSize) {
+        this.claimsCacheMaxSize = claimsCacheMaxSize;
+    }
+
     public String extractUsername(String token) {
         try {
             return extractClaim(token, Claims::getSubject);
@@ -54,17 +75,50 @@ public class JwtUtil {
 
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            String digest = digest(token);
+            long now = System.currentTimeMillis();
+            CachedClaims cached = claimsCache.get(digest);
+            if (cached != null) {
+                if (cached.expiresAt > now) {
+                    cacheHits.incrementAndGet();
+                    return cached.claims;
+                }
+                claimsCache.remove(digest, cached);
+            }
+            cacheMisses.incrementAndGet();
+
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Date expiration = claims.getExpiration();
+            if (expiration != null) {
+                cacheClaims(digest, new CachedClaims(claims, expiration.getTime()), now);
+            }
+            return claims;
         } catch (Exception e) {
             logger.error("Error extracting all claims from token", e);
             throw e;
         }
     }
 
+    private void cacheClaims(String digest, CachedClaims entry, long now) {
+        if (claimsCache.size() >= claimsCacheMaxSize) {
+            // Önce süresi dolanları at, yine de doluysa bu token'ı önbelleğe alma
+            claimsCache.values().removeIf(c -> c.expiresAt <= now);
+            if (claimsCache.size() >= claimsCacheMaxSize) {
+                return;
+            }
+        }
+        claimsCache.put(digest, entry);
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(md.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 desteklenmiyor", e);
+        }
+    }
+
     private Boolean isTokenExpired(String token) {
         try {
             Date expiration = extractExpiration(token);
@@ -86,6 +140,45 @@ public class JwtUtil {
         }
     }
 
+    // Durumsuz doğrulama için rol, çalışan ve pozisyon bilgilerini token'a göm
+    public String generateToken(User user) {
+        try {
+            Map<String, Object> claims = new HashMap<>();
+            claims.put("role", "ROLE_" + user.getRole());
+            claims.put("uid", user.getId());
+            claims.put("calisanId", user.getCalisanId());
+            claims.put("pozisyon", user.getPozisyon());
+            claims.put("ver", user.getTokenVersion());
+            return createToken(claims, user.getEmail());
+        } catch (Exception e) {
+            logger.error("Error generating token", e);
+            throw e;
+        }
+    }
+
+    // Token'dan veritabanına gitmeden kullanıcı oluştur; eski token'larda claim'ler yoksa null döner.
+    // enabled ve tokenVersion güncelliği JwtAuthenticationFilter'da kontrol edilir
+    public User extractUser(String token) {
+        Claims claims = extractClaim(token, Function.identity());
+        if (claims == null || claims.get("calisanId") == null) {
+            return null;
+        }
+        String role = claims.get("role", String.class);
+        if (role != null && role.startsWith("ROLE_")) {
+            role = role.substring("ROLE_".length());
+        }
+        Integer tokenVersion = claims.get("ver", Integer.class);
+        return User.builder()
+                .id(claims.get("uid", String.class))
+                .email(claims.getSubject())
+                .role(role)
+                .calisanId(claims.get("calisanId", Integer.class))
+                .pozisyon(claims.get("pozisyon", String.class))
+                .tokenVersion(tokenVersion == null ? 0 : tokenVersion)
+                .enabled(true)
+                .build();
+    }
+
     private String createToken(Map<String, Object> claims, String subject) {
         try {
             return Jwts.builder()
@@ -118,4 +211,26 @@ public class JwtUtil {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    public int getCacheSize() {
+        return claimsCache.size();
+    }
+
+    private static final class CachedClaims {
+        private final Claims claims;
+        private final long expiresAt;
+
+        private CachedClaims(Claims claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
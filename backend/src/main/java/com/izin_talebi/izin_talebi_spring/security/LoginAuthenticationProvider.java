@@ -0,0 +1,66 @@
+package com.izin_talebi.izin_talebi_spring.security;
+
+import com.izin_talebi.izin_talebi_spring.model.User;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+/**
+ * Giriş için kullanıcıyı tek bir okuma ile yükleyip şifreyi doğrular ve
+ * {@link User} entity'sini principal olarak döner. Token ve yanıt gövdesi bu nesneden üretilir.
+ */
+public class LoginAuthenticationProvider implements AuthenticationProvider {
+
+    private final CustomUserDetailsService userDetailsService;
+    private final PasswordHashingService passwordHashingService;
+
+    public LoginAuthenticationProvider(CustomUserDetailsService userDetailsService,
+                                       PasswordHashingService passwordHashingService) {
+        this.userDetailsService = userDetailsService;
+        this.passwordHashingService = passwordHashingService;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String email = authentication.getName();
+        Object credentials = authentication.getCredentials();
+
+        UserDetails userDetails;
+        try {
+            userDetails = userDetailsService.loadUserByUsername(email);
+        } catch (UsernameNotFoundException e) {
+            // Kullanıcının var olup olmadığını dışarı sızdırma
+            throw new BadCredentialsException("E-posta veya şifre hatalı");
+        }
+        if (!(userDetails instanceof User user)) {
+            throw new InternalAuthenticationServiceException("Beklenmeyen kullanıcı tipi: " + userDetails.getClass());
+        }
+
+        String rawPassword = credentials == null ? null : credentials.toString();
+        if (rawPassword == null || !passwordHashingService.matches(rawPassword, user.getPassword())) {
+            throw new BadCredentialsException("E-posta veya şifre hatalı");
+        }
+        if (!user.isEnabled()) {
+            throw new DisabledException("Kullanıcı hesabı devre dışı");
+        }
+
+        // Düz metin ya da eski maliyetli hash'i arka planda güncelle
+        if (passwordHashingService.upgradeEncoding(user.getPassword())) {
+            passwordHashingService.upgradeAsync(rawPassword,
+                    encoded -> userDetailsService.updatePassword(user, encoded));
+        }
+
+        return UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+}
@@ -0,0 +1,155 @@
+package com.izin_talebi.izin_talebi_spring.security;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * BCrypt hash ve doğrulama işlemlerini Tomcat thread'leri yerine sınırlı bir havuzda çalıştırır.
+ * BCrypt maliyeti açılışta hedef gecikmeye göre kalibre edilir. Ön eki olmayan eski düz metin
+ * şifreler hâlâ doğrulanır ve başarılı girişte yeniden hash'lenmek üzere işaretlenir.
+ */
+@Component
+public class PasswordHashingService implements PasswordEncoder {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private static final String CALIBRATION_SAMPLE = "kalibrasyon-ornek-sifre";
+
+    private final DelegatingPasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final int cost;
+
+    public PasswordHashingService(@Value("${security.password.target-millis:250}") long targetMillis,
+                                  @Value("${security.password.min-cost:10}") int minCost,
+                                  @Value("${security.password.max-cost:14}") int maxCost,
+                                  @Value("${security.password.pool-size:0}") int poolSize,
+                                  @Value("${security.password.queue-capacity:64}") int queueCapacity,
+                                  @Value("${security.password.timeout-millis:5000}") long timeoutMillis) {
+        this.cost = calibrate(targetMillis, minCost, maxCost);
+        this.timeoutMillis = timeoutMillis;
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", new BCryptPasswordEncoder(cost));
+        encoders.put("noop", legacyPlainText());
+        this.delegate = new DelegatingPasswordEncoder("bcrypt", encoders);
+        // Ön eki olmayan şifreler eski düz metin kayıtlardır
+        this.delegate.setDefaultPasswordEncoderForMatches(legacyPlainText());
+
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        logger.info("Password hashing: bcrypt cost {} (target {} ms), {} threads, queue capacity {}",
+                cost, targetMillis, threads, queueCapacity);
+    }
+
+    // Yalnızca eski düz metin kayıtları doğrulamak için; bu kayıtlar ilk girişte bcrypt'e yükseltilir
+    @SuppressWarnings("deprecation")
+    private static PasswordEncoder legacyPlainText() {
+        return NoOpPasswordEncoder.getInstance();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return await(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return await(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // Düz metin ya da daha düşük maliyetli hash'ler yükseltilmeli
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return encodedPassword != null && delegate.upgradeEncoding(encodedPassword);
+    }
+
+    // Yeni hash'i arka planda üretir; kuyruk doluysa bir sonraki girişe bırakır
+    public void upgradeAsync(CharSequence rawPassword, Consumer<String> onEncoded) {
+        try {
+            executor.execute(() -> {
+                try {
+                    onEncoded.accept(delegate.encode(rawPassword));
+                } catch (Exception e) {
+                    logger.warn("Password hash upgrade failed", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.debug("Hash queue full, skipping password upgrade");
+        }
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T await(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new AuthenticationServiceException("Sunucu yoğun, lütfen tekrar deneyin", e);
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new AuthenticationServiceException("Şifre doğrulama zaman aşımına uğradı", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Şifre doğrulama kesildi", e);
+        } catch (ExecutionException e) {
+            throw new AuthenticationServiceException("Şifre doğrulama hatası", e.getCause());
+        }
+    }
+
+    // Her maliyet artışı süreyi iki katına çıkarır; en düşük maliyeti ölçüp hedefe sığan en yükseğini seç
+    private static int calibrate(long targetMillis, int minCost, int maxCost) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minCost);
+        probe.encode(CALIBRATION_SAMPLE); // JIT ısınması
+        long start = System.nanoTime();
+        probe.encode(CALIBRATION_SAMPLE);
+        double millis = (System.nanoTime() - start) / 1_000_000.0;
+
+        int cost = minCost;
+        while (cost < maxCost && millis * 2 <= targetMillis) {
+            cost++;
+            millis *= 2;
+        }
+        return cost;
+    }
+}
@@ -10,8 +10,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.password.NoOpPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -30,11 +28,14 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final CustomUserDetailsService userDetailsService;
+    private final PasswordHashingService passwordHashingService;
 
     @Autowired
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthFilter, CustomUserDetailsService userDetailsService) {
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthFilter, CustomUserDetailsService userDetailsService,
+                          PasswordHashingService passwordHashingService) {
         this.jwtAuthFilter = jwtAuthFilter;
         this.userDetailsService = userDetailsService;
+        this.passwordHashingService = passwordHashingService;
     }
 
     @Bean
@@ -78,18 +79,12 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        logger.debug("Using NoOpPasswordEncoder for password encoding");
-        return NoOpPasswordEncoder.getInstance();
-    }
-
     @Bean
     public org.springframework.security.authentication.AuthenticationProvider authenticationProvider() {
-        org.springframework.security.authentication.dao.DaoAuthenticationProvider authProvider = new org.springframework.security.authentication.dao.DaoAuthenticationProvider();
-        authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
-        logger.debug("Authentication provider configured with NoOpPasswordEncoder");
+        // Kullanıcıyı tek okumada yükleyip entity'yi principal olarak döner
+        // PasswordEncoder bean'i PasswordHashingService'tir (bcrypt, ayrı thread havuzu)
+        LoginAuthenticationProvider authProvider = new LoginAuthenticationProvider(userDetailsService, passwordHashingService);
+        logger.debug("Login authentication provider configured with pooled bcrypt password hashing");
         return authProvider;
     }
 }
@@ -0,0 +1,204 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import com.izin_talebi.izin_talebi_spring.model.DateRange;
+import com.izin_talebi.izin_talebi_spring.model.IzinTalebi;
+import com.izin_talebi.izin_talebi_spring.model.User;
+import com.izin_talebi.izin_talebi_spring.model.UserSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * "Bu tarihlerde kim izinli" sorguları için gün başına izinli çalışan bit kümeleri.
+ * Çalışanlara sıra numarası verilir; tarih aralığı günlük kümelerin OR'u, ekip filtresi
+ * ekip kümesiyle AND'dir. Açılışta izinTalepleri'nden kurulur, talep akışında güncellenir.
+ * İlk kurulum bitene kadar sorgular bekler; boş indeksten "kimse izinli değil" dönmez.
+ */
+@Service
+public class AvailabilityIndex {
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityIndex.class);
+
+    private static final int CURSOR_BATCH_SIZE = 500;
+    private static final long READY_TIMEOUT_SECONDS = 30;
+
+    private final MongoTemplate mongoTemplate;
+    private final UserCache userCache;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final CountDownLatch ready = new CountDownLatch(1);
+    private final Map<Integer, Integer> ordinals = new HashMap<>();
+    private final List<UserSnapshot> employees = new ArrayList<>();
+    private final Map<String, BitSet> teams = new HashMap<>();
+    // epochDay -> o gün izinli çalışanların sıra numaraları
+    private final NavigableMap<Long, BitSet> approved = new TreeMap<>();
+    private final NavigableMap<Long, BitSet> pending = new TreeMap<>();
+
+    @Autowired
+    public AvailabilityIndex(MongoTemplate mongoTemplate, UserCache userCache) {
+        this.mongoTemplate = mongoTemplate;
+        this.userCache = userCache;
+    }
+
+    // Aralıkta en az bir gün izinli olan çalışanlar; team null ise herkes
+    public List<UserSnapshot> whoIsOff(DateRange range, String team, boolean includePending) {
+        awaitReady();
+        BitSet off = new BitSet();
+        lock.readLock().lock();
+        try {
+            long from = range.start().toEpochDay();
+            long to = range.end().toEpochDay();
+            approved.subMap(from, true, to, true).values().forEach(off::or);
+            if (includePending) {
+                pending.subMap(from, true, to, true).values().forEach(off::or);
+            }
+            if (team != null) {
+                off.and(teams.getOrDefault(team, new BitSet()));
+            }
+            List<UserSnapshot> result = new ArrayList<>(off.cardinality());
+            off.stream().forEach(ordinal -> result.add(employees.get(ordinal)));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Talebin durumuna göre ilgili gün kümelerini günceller; reddedilen talep her iki kümeden çıkar
+    public void update(Integer calisanId, DateRange range, String status) {
+        Integer ordinal = ordinalOf(calisanId);
+        if (ordinal == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            boolean isApproved = IzinTalebiService.STATUS_APPROVED.equals(status);
+            boolean isPending = IzinTalebiService.STATUS_PENDING.equals(status);
+            apply(approved, ordinal, range, isApproved);
+            apply(pending, ordinal, range, isPending);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            ordinals.clear();
+            employees.clear();
+            teams.clear();
+            approved.clear();
+            pending.clear();
+
+            Query users = new Query();
+            users.fields().include("calisanId", "adSoyad", "pozisyon");
+            users.cursorBatchSize(CURSOR_BATCH_SIZE);
+            try (Stream<User> stream = mongoTemplate.stream(users, User.class)) {
+                stream.filter(u -> u.getCalisanId() != null).forEach(this::register);
+            }
+
+            Query requests = new Query(where("requestStatus")
+                    .in(IzinTalebiService.STATUS_PENDING, IzinTalebiService.STATUS_APPROVED));
+            requests.fields().include("calisanId", "requestedDates", "requestStatus");
+            requests.cursorBatchSize(CURSOR_BATCH_SIZE);
+            try (Stream<IzinTalebi> stream = mongoTemplate.stream(requests, IzinTalebi.class)) {
+                for (IzinTalebi iz : (Iterable<IzinTalebi>) stream::iterator) {
+                    Integer ordinal = ordinals.get(iz.getCalisanId());
+                    if (ordinal == null) {
+                        continue;
+                    }
+                    try {
+                        boolean isApproved = IzinTalebiService.STATUS_APPROVED.equals(iz.getRequestStatus());
+                        apply(isApproved ? approved : pending, ordinal, DateRange.parse(iz.getRequestedDates()), true);
+                    } catch (IllegalArgumentException e) {
+                        logger.debug("Skipping izin talebi {} with unparsable dates", iz.getId());
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+            ready.countDown();
+        }
+        logger.info("Availability index built for {} employees, {} days in {} ms",
+                employees.size(), approved.size() + pending.size(), System.currentTimeMillis() - start);
+    }
+
+    private void awaitReady() {
+        try {
+            if (!ready.await(READY_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("İzinli çalışan indeksi henüz yüklenmedi, lütfen tekrar deneyin");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("İzinli çalışan indeksi beklenirken kesildi", e);
+        }
+    }
+
+    // Açılıştan sonra eklenen çalışanlar ilk izin talebinde kaydedilir
+    private Integer ordinalOf(Integer calisanId) {
+        if (calisanId == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            Integer ordinal = ordinals.get(calisanId);
+            if (ordinal != null) {
+                return ordinal;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Optional<User> user = userCache.findByCalisanId(calisanId, () -> Optional.ofNullable(
+                mongoTemplate.findOne(new Query(where("calisanId").is(calisanId)), User.class)));
+        if (user.isEmpty()) {
+            return null;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(calisanId);
+            return ordinal != null ? ordinal : register(user.get());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int register(User user) {
+        int ordinal = employees.size();
+        ordinals.put(user.getCalisanId(), ordinal);
+        employees.add(UserSnapshot.of(user));
+        if (user.getPozisyon() != null) {
+            teams.computeIfAbsent(user.getPozisyon(), t -> new BitSet()).set(ordinal);
+        }
+        return ordinal;
+    }
+
+    private static void apply(NavigableMap<Long, BitSet> days, int ordinal, DateRange range, boolean set) {
+        for (long day = range.start().toEpochDay(); day <= range.end().toEpochDay(); day++) {
+            if (set) {
+                days.computeIfAbsent(day, d -> new BitSet()).set(ordinal);
+            } else {
+                BitSet bits = days.get(day);
+                if (bits != null) {
+                    bits.clear(ordinal);
+                    if (bits.isEmpty()) {
+                        days.remove(day);
+                    }
+                }
+            }
+        }
+    }
+}
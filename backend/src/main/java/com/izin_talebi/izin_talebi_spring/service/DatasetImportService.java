@@ -0,0 +1,382 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import com.izin_talebi.izin_talebi_spring.model.DateRange;
+import com.izin_talebi.izin_talebi_spring.model.ImportProgress;
+import com.izin_talebi.izin_talebi_spring.model.IzinTalebi;
+import com.izin_talebi.izin_talebi_spring.model.User;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * dataset.xlsx biçimindeki İK dökümünü calisanlar ve izinTalepleri koleksiyonlarına aktarır.
+ * Sayfa akış halinde okunur, satırlar doğrulanıp sabit boyutlu gruplar halinde sırasız toplu
+ * insert ile yazılır. Doküman kimlikleri dosya ve satırdan türetildiği için yarıda kalan bir
+ * aktarım tekrar çalıştırıldığında mükerrer kayıt oluşmaz; ilerleme importProgress'e yazılır.
+ */
+@Service
+public class DatasetImportService {
+    private static final Logger logger = LoggerFactory.getLogger(DatasetImportService.class);
+
+    private static final int DUPLICATE_KEY = 11000;
+    private static final LocalDate EXCEL_EPOCH = LocalDate.of(1899, 12, 30);
+
+    // Sütun sırası: Çalışan ID, Ad-Soyad, Pozisyon, Unvan, İşe Başlama Tarihi, Kullanılan İzin,
+    // Kalan İzin, Talep Oluşturma Tarihi, Talep Edilen İzin Tarihleri, Talep Durumu, Talep Açıklaması
+    private static final int CALISAN_ID = 0;
+    private static final int AD_SOYAD = 1;
+    private static final int POZISYON = 2;
+    private static final int UNVAN = 3;
+    private static final int ISE_BASLAMA = 4;
+    private static final int KULLANILAN = 5;
+    private static final int KALAN = 6;
+    private static final int TALEP_TARIHI = 7;
+    private static final int IZIN_TARIHLERI = 8;
+    private static final int DURUM = 9;
+    private static final int ACIKLAMA = 10;
+
+    private static final Map<String, String> STATUSES = Map.of(
+            "Bekliyor", IzinTalebiService.STATUS_PENDING,
+            "Onaylandı", IzinTalebiService.STATUS_APPROVED,
+            "Reddedildi", IzinTalebiService.STATUS_REJECTED,
+            IzinTalebiService.STATUS_PENDING, IzinTalebiService.STATUS_PENDING,
+            IzinTalebiService.STATUS_APPROVED, IzinTalebiService.STATUS_APPROVED,
+            IzinTalebiService.STATUS_REJECTED, IzinTalebiService.STATUS_REJECTED
+    );
+
+    private final MongoTemplate mongoTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final UserCache userCache;
+    private final int batchSize;
+    private final String emailDomain;
+    private final String defaultPassword;
+
+    @Autowired
+    public DatasetImportService(MongoTemplate mongoTemplate, PasswordEncoder passwordEncoder, UserCache userCache,
+                                @Value("${izin.import.batch-size:500}") int batchSize,
+                                @Value("${izin.import.email-domain:talenteer.com}") String emailDomain,
+                                @Value("${izin.import.default-password:}") String defaultPassword) {
+        this.mongoTemplate = mongoTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.userCache = userCache;
+        this.batchSize = batchSize;
+        this.emailDomain = emailDomain;
+        this.defaultPassword = defaultPassword;
+    }
+
+    public ImportProgress importFile(Path file) throws IOException {
+        String fileId = sha256(file);
+        ImportProgress progress = Optional.ofNullable(mongoTemplate.findById(fileId, ImportProgress.class))
+                .orElseGet(() -> ImportProgress.builder().id(fileId).fileName(file.getFileName().toString()).build());
+        if (progress.isCompleted()) {
+            logger.info("{} was already imported, skipping", file);
+            return progress;
+        }
+        if (progress.getLastRow() > 0) {
+            logger.info("Resuming import of {} after row {}", file, progress.getLastRow());
+        }
+
+        // Tüm kullanıcılara aynı başlangıç şifresi verilir; hash bir kez hesaplanır
+        String passwordHash = defaultPassword.isBlank() ? null : passwordEncoder.encode(defaultPassword);
+        Batch batch = new Batch(fileId, progress, passwordHash);
+        new XlsxSheetReader().read(file, batch::accept);
+        batch.flush();
+
+        progress.setCompleted(true);
+        saveProgress(progress);
+        userCache.invalidateAll();
+        logger.info("Imported {}: {} users, {} requests, {} rows skipped",
+                file, progress.getUsersInserted(), progress.getRequestsInserted(), progress.getRowsSkipped());
+        return progress;
+    }
+
+    private final class Batch {
+        private final String fileId;
+        private final ImportProgress progress;
+        private final String passwordHash;
+        private final Map<Integer, User> users = new LinkedHashMap<>();
+        private final List<IzinTalebi> requests = new ArrayList<>();
+        // Bu aktarımda görülmüş çalışanlar; her grup için tekrar sorgulanmaz
+        private final Set<Integer> knownEmployees = new HashSet<>();
+        private final Set<String> emails = new HashSet<>();
+        // Eklenemeyen çalışanlar; kalan satırları sahipsiz talep oluşturmasın diye atlanır
+        private final Set<Integer> rejectedEmployees = new HashSet<>();
+        private int lastRow;
+        // lastRow ile birlikte kaydedilir; devam eden aktarım aynı satırı iki kez saymaz
+        private int skipped;
+
+        private Batch(String fileId, ImportProgress progress, String passwordHash) {
+            this.fileId = fileId;
+            this.progress = progress;
+            this.passwordHash = passwordHash;
+            this.lastRow = progress.getLastRow();
+        }
+
+        private void accept(int rowNumber, List<String> cells) {
+            // Başlık satırı ve önceki çalıştırmada yazılmış satırlar
+            if (rowNumber == 1 || rowNumber <= progress.getLastRow()) {
+                return;
+            }
+            lastRow = rowNumber;
+            if (cells.stream().allMatch(c -> c == null || c.isBlank())) {
+                return;
+            }
+            try {
+                Integer calisanId = (int) number(cells, CALISAN_ID);
+                if (rejectedEmployees.contains(calisanId)) {
+                    throw new IllegalArgumentException("Çalışan " + calisanId + " eklenemedi");
+                }
+                if (!knownEmployees.contains(calisanId) && !users.containsKey(calisanId)) {
+                    users.put(calisanId, toUser(calisanId, cells));
+                }
+                requests.add(toRequest(rowNumber, calisanId, cells));
+            } catch (IllegalArgumentException e) {
+                skipped++;
+                logger.warn("Row {} skipped: {}", rowNumber, e.getMessage());
+            }
+            if (requests.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (!users.isEmpty()) {
+                // Elle yüklenmiş ya da önceki dosyalardan gelen çalışanlar tekrar eklenmez
+                Query existing = new Query(where("calisanId").in(users.keySet()));
+                existing.fields().include("calisanId");
+                mongoTemplate.find(existing, User.class).forEach(u -> {
+                    users.remove(u.getCalisanId());
+                    knownEmployees.add(u.getCalisanId());
+                });
+                avoidTakenEmails();
+                List<User> inserting = new ArrayList<>(users.values());
+                long inserted = insertUnordered(inserting, User.class,
+                        i -> reject(inserting.get(i).getCalisanId(), "e-posta adresi başka bir hesapta kayıtlı"));
+                progress.setUsersInserted(progress.getUsersInserted() + inserted);
+                users.keySet().removeAll(rejectedEmployees);
+                knownEmployees.addAll(users.keySet());
+                users.clear();
+            }
+            if (!requests.isEmpty()) {
+                List<IzinTalebi> inserting = new ArrayList<>(requests);
+                long inserted = insertUnordered(inserting, IzinTalebi.class, i -> {
+                    skipped++;
+                    logger.warn("Izin talebi {} skipped: duplicate key on a unique index", inserting.get(i).getId());
+                });
+                progress.setRequestsInserted(progress.getRequestsInserted() + inserted);
+                requests.clear();
+            }
+            progress.setLastRow(lastRow);
+            progress.setRowsSkipped(progress.getRowsSkipped() + skipped);
+            skipped = 0;
+            saveProgress(progress);
+        }
+
+        // Başka bir hesapta (elle kayıt ya da önceki aktarım) kullanılan adres çalışan ID'li adrese geçer
+        private void avoidTakenEmails() {
+            Query taken = new Query(where("email").in(users.values().stream().map(User::getEmail).toList()));
+            taken.fields().include("email");
+            Set<String> takenEmails = mongoTemplate.find(taken, User.class).stream()
+                    .map(User::getEmail)
+                    .collect(Collectors.toSet());
+            for (User user : users.values()) {
+                String alternative = withCalisanId(user.getEmail(), user.getCalisanId());
+                if (takenEmails.contains(user.getEmail()) && !alternative.equals(user.getEmail())) {
+                    user.setEmail(alternative);
+                    emails.add(alternative);
+                }
+            }
+        }
+
+        // Çalışan yazılamadıysa bu gruptaki talepleri de yazılmaz ve atlanan satır sayılır
+        private void reject(Integer calisanId, String reason) {
+            rejectedEmployees.add(calisanId);
+            int before = requests.size();
+            requests.removeIf(iz -> calisanId.equals(iz.getCalisanId()));
+            skipped += before - requests.size();
+            logger.warn("Employee {} skipped with {} rows: {}", calisanId, before - requests.size(), reason);
+        }
+
+        private User toUser(Integer calisanId, List<String> cells) {
+            String adSoyad = text(cells, AD_SOYAD, true);
+            LocalDate workStart = date(cells, ISE_BASLAMA).toLocalDate();
+            return User.builder()
+                    .id(deterministicId(workStart.atStartOfDay(), "calisan:" + calisanId))
+                    .calisanId(calisanId)
+                    .adSoyad(adSoyad)
+                    .pozisyon(text(cells, POZISYON, true))
+                    .role(Optional.ofNullable(text(cells, UNVAN, false)).orElse("Çalışan"))
+                    .workStartDate(workStart.toString())
+                    .usedDays((int) number(cells, KULLANILAN))
+                    .remainingDays((int) number(cells, KALAN))
+                    .email(uniqueEmail(adSoyad, calisanId))
+                    .password(passwordHash)
+                    .build();
+        }
+
+        // Aynı ad soyada sahip çalışanlar çalışan ID ile ayrılır
+        private String uniqueEmail(String adSoyad, Integer calisanId) {
+            String email = email(adSoyad, calisanId);
+            if (!emails.add(email)) {
+                email = withCalisanId(email, calisanId);
+                emails.add(email);
+            }
+            return email;
+        }
+
+        private IzinTalebi toRequest(int rowNumber, Integer calisanId, List<String> cells) {
+            String requestedDates = text(cells, IZIN_TARIHLERI, true);
+            DateRange.parse(requestedDates);
+            String status = STATUSES.get(text(cells, DURUM, true));
+            if (status == null) {
+                throw new IllegalArgumentException("Bilinmeyen talep durumu: " + text(cells, DURUM, true));
+            }
+            LocalDateTime requestTime = date(cells, TALEP_TARIHI);
+            return IzinTalebi.builder()
+                    .id(deterministicId(requestTime, fileId + ":" + rowNumber))
+                    .calisanId(calisanId)
+                    .requestTime(requestTime.toString())
+                    .requestedDates(requestedDates)
+                    .requestStatus(status)
+                    .requestDesc(unquote(text(cells, ACIKLAMA, false)))
+                    .build();
+        }
+    }
+
+    // Tekrar çalıştırmada aynı kimlikli kayıtlar _id üzerinde duplicate key ile düşer ve yok sayılır;
+    // başka bir tekil indeksteki çakışma (örn. e-posta) veri kaybıdır, sırasıyla rejected'a bildirilir
+    private long insertUnordered(List<?> documents, Class<?> type, IntConsumer rejected) {
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+        ops.insert(documents);
+        try {
+            return ops.execute().getInsertedCount();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+            }
+            for (BulkWriteError error : e.getErrors()) {
+                if (!isIdDuplicate(error)) {
+                    rejected.accept(error.getIndex());
+                }
+            }
+            return e.getResult().getInsertedCount();
+        }
+    }
+
+    // Sunucu mesajı: "E11000 duplicate key error collection: db.calisanlar index: _id_ dup key: ..."
+    private static boolean isIdDuplicate(BulkWriteError error) {
+        return error.getMessage() != null && error.getMessage().contains(" index: _id_ ");
+    }
+
+    private static String withCalisanId(String email, Integer calisanId) {
+        String suffix = "." + calisanId + "@";
+        return email.contains(suffix) ? email : email.replace("@", suffix);
+    }
+
+    private void saveProgress(ImportProgress progress) {
+        progress.setUpdatedAt(LocalDateTime.now());
+        mongoTemplate.save(progress);
+    }
+
+    // Zaman damgası kayıt tarihinden, kalan 8 bayt anahtarın özetinden; _id sıralaması tarihe uyar
+    private static String deterministicId(LocalDateTime timestamp, String key) {
+        byte[] digest = digest(key.getBytes(StandardCharsets.UTF_8));
+        ByteBuffer bytes = ByteBuffer.allocate(12);
+        bytes.putInt((int) timestamp.toEpochSecond(ZoneOffset.UTC));
+        bytes.put(digest, 0, 8);
+        return new ObjectId(bytes.array()).toHexString();
+    }
+
+    private String email(String adSoyad, Integer calisanId) {
+        String local = Normalizer.normalize(adSoyad.toLowerCase(Locale.forLanguageTag("tr"))
+                        .replace('ı', 'i'), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .replaceAll("[^a-z0-9]+", ".")
+                .replaceAll("^\\.|\\.$", "");
+        return (local.isEmpty() ? "calisan" + calisanId : local) + "@" + emailDomain;
+    }
+
+    private static String text(List<String> cells, int column, boolean required) {
+        String value = column < cells.size() ? cells.get(column) : null;
+        if (value == null || value.isBlank()) {
+            if (required) {
+                throw new IllegalArgumentException("Zorunlu sütun boş: " + (column + 1));
+            }
+            return null;
+        }
+        return value.trim();
+    }
+
+    private static double number(List<String> cells, int column) {
+        try {
+            return Double.parseDouble(text(cells, column, true));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Sayı bekleniyordu, sütun " + (column + 1));
+        }
+    }
+
+    // Excel tarih seri numarası: 1899-12-30'dan itibaren gün, ondalık kısım günün saati
+    private static LocalDateTime date(List<String> cells, int column) {
+        double serial = number(cells, column);
+        long days = (long) Math.floor(serial);
+        long seconds = Math.round((serial - days) * 86_400);
+        return EXCEL_EPOCH.plusDays(days).atStartOfDay().plusSeconds(seconds);
+    }
+
+    private static String unquote(String text) {
+        if (text != null && text.length() >= 2 && text.startsWith("\"") && text.endsWith("\"")) {
+            return text.substring(1, text.length() - 1);
+        }
+        return text;
+    }
+
+    private static String sha256(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[8192];
+            for (int read; (read = in.read(buffer)) != -1; ) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] digest(byte[] input) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(input);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
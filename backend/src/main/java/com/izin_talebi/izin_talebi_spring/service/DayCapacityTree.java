@@ -0,0 +1,68 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+/**
+ * Gün indeksleri üzerinde aralığa ekleme ve aralıktaki en büyük değeri veren tembel segment ağacı.
+ * Her iki işlem de O(log n). Thread-safe değildir, çağıran senkronize eder.
+ */
+class DayCapacityTree {
+
+    private final int size;
+    private final int[] max;
+    private final int[] pending;
+
+    DayCapacityTree(int size) {
+        this.size = size;
+        this.max = new int[4 * size];
+        this.pending = new int[4 * size];
+    }
+
+    int size() {
+        return size;
+    }
+
+    void add(int from, int to, int delta) {
+        add(1, 0, size - 1, from, to, delta);
+    }
+
+    int max(int from, int to) {
+        return max(1, 0, size - 1, from, to);
+    }
+
+    private void add(int node, int lo, int hi, int from, int to, int delta) {
+        if (to < lo || hi < from) {
+            return;
+        }
+        if (from <= lo && hi <= to) {
+            max[node] += delta;
+            pending[node] += delta;
+            return;
+        }
+        push(node);
+        int mid = (lo + hi) >>> 1;
+        add(2 * node, lo, mid, from, to, delta);
+        add(2 * node + 1, mid + 1, hi, from, to, delta);
+        max[node] = Math.max(max[2 * node], max[2 * node + 1]);
+    }
+
+    private int max(int node, int lo, int hi, int from, int to) {
+        if (to < lo || hi < from) {
+            return Integer.MIN_VALUE;
+        }
+        if (from <= lo && hi <= to) {
+            return max[node];
+        }
+        push(node);
+        int mid = (lo + hi) >>> 1;
+        return Math.max(max(2 * node, lo, mid, from, to), max(2 * node + 1, mid + 1, hi, from, to));
+    }
+
+    private void push(int node) {
+        if (pending[node] != 0) {
+            for (int child = 2 * node; child <= 2 * node + 1; child++) {
+                max[child] += pending[node];
+                pending[child] += pending[node];
+            }
+            pending[node] = 0;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Başlangıca göre sıralı, her düğümde alt ağacın en büyük bitişini tutan treap.
+ * Çakışma sorgusu O(log n + k); aynı kimlikle tekrar ekleme eski aralığın yerine geçer.
+ * Thread-safe değildir, çağıran senkronize eder.
+ */
+class IntervalTreap {
+
+    private static final class Node {
+        private final String id;
+        private final long start;
+        private final long end;
+        private final int priority;
+        private long maxEnd;
+        private Node left;
+        private Node right;
+
+        private Node(String id, long start, long end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+            this.priority = ThreadLocalRandom.current().nextInt();
+        }
+    }
+
+    private Node root;
+    private final Map<String, Node> byId = new HashMap<>();
+
+    void insert(String id, long start, long end) {
+        remove(id);
+        Node node = new Node(id, start, end);
+        Node[] parts = split(root, node);
+        root = merge(merge(parts[0], node), parts[1]);
+        byId.put(id, node);
+    }
+
+    boolean remove(String id) {
+        Node node = byId.remove(id);
+        if (node == null) {
+            return false;
+        }
+        root = remove(root, node);
+        return true;
+    }
+
+    // [start, end] ile kesişen kayıtların kimlikleri
+    List<String> overlapping(long start, long end) {
+        List<String> ids = new ArrayList<>();
+        collect(root, start, end, ids);
+        return ids;
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    private static void collect(Node node, long start, long end, List<String> ids) {
+        if (node == null || node.maxEnd < start) {
+            return;
+        }
+        collect(node.left, start, end, ids);
+        if (node.start > end) {
+            return;
+        }
+        if (node.end >= start) {
+            ids.add(node.id);
+        }
+        collect(node.right, start, end, ids);
+    }
+
+    private static int compare(Node a, Node b) {
+        int byStart = Long.compare(a.start, b.start);
+        return byStart != 0 ? byStart : a.id.compareTo(b.id);
+    }
+
+    // key'den küçükler sola, büyük ya da eşitler sağa
+    private static Node[] split(Node node, Node key) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (compare(node, key) < 0) {
+            Node[] parts = split(node.right, key);
+            node.right = parts[0];
+            update(node);
+            return new Node[]{node, parts[1]};
+        }
+        Node[] parts = split(node.left, key);
+        node.left = parts[1];
+        update(node);
+        return new Node[]{parts[0], node};
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node remove(Node node, Node target) {
+        if (node == null) {
+            return null;
+        }
+        if (node == target) {
+            return merge(node.left, node.right);
+        }
+        if (compare(target, node) < 0) {
+            node.left = remove(node.left, target);
+        } else {
+            node.right = remove(node.right, target);
+        }
+        update(node);
+        return node;
+    }
+
+    private static void update(Node node) {
+        long max = node.end;
+        if (node.left != null && node.left.maxEnd > max) {
+            max = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd > max) {
+            max = node.right.maxEnd;
+        }
+        node.maxEnd = max;
+    }
+}
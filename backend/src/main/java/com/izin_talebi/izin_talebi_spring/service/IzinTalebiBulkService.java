@@ -0,0 +1,342 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import com.izin_talebi.izin_talebi_spring.dto.BulkDecisionRequest;
+import com.izin_talebi.izin_talebi_spring.dto.BulkDecisionResult;
+import com.izin_talebi.izin_talebi_spring.model.DateRange;
+import com.izin_talebi.izin_talebi_spring.model.IzinTalebi;
+import com.izin_talebi.izin_talebi_spring.model.User;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * İK'nın toplu onay/red kararlarını uygular. Durum değişiklikleri ve bakiye düşümleri koleksiyon
+ * başına tek bir sırasız bulkWrite ile yapılır; hangi kalemin uygulandığı işlem kimliği işaretiyle
+ * tam olarak belirlenir. Kalem bazındaki ret sebepleri diğer kalemleri etkilemez; veritabanı hatasında
+ * ise karar bütünüyle geri alınır (replica set varsa transaction, yoksa işaretlere göre telafi).
+ */
+@Service
+public class IzinTalebiBulkService {
+    private static final Logger logger = LoggerFactory.getLogger(IzinTalebiBulkService.class);
+
+    public static final String DECISION_APPROVE = "ONAYLA";
+    public static final String DECISION_REJECT = "REDDET";
+
+    // Kararı bu çağrının uyguladığını gösteren geçici alanlar
+    private static final String REQUEST_MARKER = "kararIslemId";
+    private static final String USER_MARKER = "kararIslemleri";
+
+    private final MongoTemplate mongoTemplate;
+    private final WorkingDayCalendar calendar;
+    private final TeamCapacityService teamCapacity;
+    private final LeaveIntervalIndex intervalIndex;
+    private final AvailabilityIndex availability;
+    private final UserCache userCache;
+    private final MongoTransactions mongoTransactions;
+
+    @Autowired
+    public IzinTalebiBulkService(MongoTemplate mongoTemplate, WorkingDayCalendar calendar,
+                                 TeamCapacityService teamCapacity, LeaveIntervalIndex intervalIndex,
+                                 AvailabilityIndex availability, UserCache userCache,
+                                 MongoTransactions mongoTransactions) {
+        this.mongoTemplate = mongoTemplate;
+        this.calendar = calendar;
+        this.teamCapacity = teamCapacity;
+        this.intervalIndex = intervalIndex;
+        this.availability = availability;
+        this.userCache = userCache;
+        this.mongoTransactions = mongoTransactions;
+    }
+
+    // Kalem sayısından bağımsız olarak sabit sayıda veritabanı gidiş-dönüşü yapar
+    public List<BulkDecisionResult> decide(List<BulkDecisionRequest.Item> items) {
+        String batchId = new ObjectId().toHexString();
+        List<BulkDecisionResult> ordered = new ArrayList<>(items.size());
+        Map<String, BulkDecisionResult> results = new HashMap<>();
+        Map<String, String> targetStatus = new LinkedHashMap<>();
+        for (BulkDecisionRequest.Item item : items) {
+            BulkDecisionResult result = new BulkDecisionResult(item.getId(), item.getDecision(), null, null);
+            ordered.add(result);
+            if (item.getId() == null || results.containsKey(item.getId())) {
+                fail(result, BulkDecisionResult.INVALID, "Eksik ya da tekrarlanan talep ID");
+                continue;
+            }
+            results.put(item.getId(), result);
+            if (DECISION_APPROVE.equals(item.getDecision())) {
+                targetStatus.put(item.getId(), IzinTalebiService.STATUS_APPROVED);
+            } else if (DECISION_REJECT.equals(item.getDecision())) {
+                targetStatus.put(item.getId(), IzinTalebiService.STATUS_REJECTED);
+            } else {
+                fail(result, BulkDecisionResult.INVALID, "Karar ONAYLA ya da REDDET olmalı");
+            }
+        }
+
+        // 1) Talepleri tek sorguda oku ve bekleyenleri ayır
+        Map<String, IzinTalebi> pending = new LinkedHashMap<>();
+        if (!targetStatus.isEmpty()) {
+            Query query = new Query(where("_id").in(targetStatus.keySet()));
+            query.fields().include("calisanId", "requestedDates", "requestStatus");
+            Map<String, IzinTalebi> found = new HashMap<>();
+            mongoTemplate.find(query, IzinTalebi.class).forEach(iz -> found.put(iz.getId(), iz));
+            for (String id : targetStatus.keySet()) {
+                IzinTalebi iz = found.get(id);
+                if (iz == null) {
+                    fail(results.get(id), BulkDecisionResult.NOT_FOUND, "İzin talebi bulunamadı");
+                } else if (!IzinTalebiService.STATUS_PENDING.equals(iz.getRequestStatus())) {
+                    fail(results.get(id), BulkDecisionResult.CONFLICT, "İzin talebi zaten sonuçlandırılmış");
+                } else {
+                    pending.put(id, iz);
+                }
+            }
+        }
+
+        // 2) Onaylar için gün sayısı, bakiye ön kontrolü ve ekip kapasitesi
+        Map<String, DateRange> ranges = new HashMap<>();
+        Map<String, Integer> days = new HashMap<>();
+        Map<String, TeamCapacityService.Reservation> reservations = new HashMap<>();
+        Map<Integer, Integer> available = balances(pending.values());
+        for (Iterator<IzinTalebi> it = pending.values().iterator(); it.hasNext(); ) {
+            IzinTalebi iz = it.next();
+            try {
+                ranges.put(iz.getId(), DateRange.parse(iz.getRequestedDates()));
+            } catch (IllegalArgumentException e) {
+                if (isApproval(targetStatus, iz)) {
+                    fail(results.get(iz.getId()), BulkDecisionResult.INVALID, e.getMessage());
+                    it.remove();
+                }
+                continue;
+            }
+            if (!isApproval(targetStatus, iz)) {
+                continue;
+            }
+            DateRange range = ranges.get(iz.getId());
+            if (!available.containsKey(iz.getCalisanId())) {
+                fail(results.get(iz.getId()), BulkDecisionResult.NOT_FOUND, "Talebin sahibi olan çalışan bulunamadı");
+                it.remove();
+                continue;
+            }
+            int n = calendar.chargeableDays(range);
+            int remaining = available.get(iz.getCalisanId());
+            if (remaining < n) {
+                fail(results.get(iz.getId()), BulkDecisionResult.INSUFFICIENT_BALANCE, "Çalışanın yeterli izin bakiyesi yok");
+                it.remove();
+                continue;
+            }
+            Optional<TeamCapacityService.Reservation> reservation =
+                    teamCapacity.tryReserve(teamCapacity.teamOf(iz.getCalisanId()), range);
+            if (reservation.isEmpty()) {
+                fail(results.get(iz.getId()), BulkDecisionResult.CAPACITY_FULL, "Ekip kapasitesi bu tarihlerde dolu");
+                it.remove();
+                continue;
+            }
+            available.put(iz.getCalisanId(), remaining - n);
+            days.put(iz.getId(), n);
+            reservations.put(iz.getId(), reservation.get());
+        }
+
+        // 3-5) Replica set varsa tek transaction'da çalışır. Herhangi bir adım hata verirse bu çağrının
+        // işaretlediği talepler BEKLEMEDE'ye, düşülen bakiyeler geri alınır ve kapasite bırakılır
+        Set<String> applied = new HashSet<>();
+        Map<Integer, List<IzinTalebi>> approvalsByEmployee = new LinkedHashMap<>();
+        Set<Integer> charged = new HashSet<>();
+        List<String> reverted = new ArrayList<>();
+        TransactionTemplate transactions = mongoTransactions.template();
+        try {
+            Runnable steps = () -> apply(batchId, pending, targetStatus, results, days, reservations,
+                    applied, approvalsByEmployee, charged, reverted);
+            if (transactions == null) {
+                steps.run();
+            } else {
+                transactions.executeWithoutResult(tx -> steps.run());
+            }
+        } catch (RuntimeException e) {
+            compensate(batchId, pending.keySet(), approvalsByEmployee, days, reservations, e);
+            throw e;
+        }
+
+        // İşaretleri temizle; karar bu noktada kesinleşmiştir, kalan işaret yalnızca iz bırakır.
+        // İşaret alanlarında indeks yok; sorgular eldeki _id / calisanId listesiyle daraltılır
+        try {
+            if (!applied.isEmpty()) {
+                mongoTemplate.updateMulti(new Query(where("_id").in(applied).and(REQUEST_MARKER).is(batchId)),
+                        new Update().unset(REQUEST_MARKER), IzinTalebi.class);
+            }
+            if (!charged.isEmpty()) {
+                mongoTemplate.updateMulti(new Query(where("calisanId").in(charged).and(USER_MARKER).is(batchId)),
+                        new Update().pull(USER_MARKER, batchId), User.class);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Bulk decision {} applied but its markers could not be cleared", batchId, e);
+        }
+
+        // 6) Bellek içi indeksler ve önbellek
+        for (IzinTalebi iz : pending.values()) {
+            BulkDecisionResult result = results.get(iz.getId());
+            if (result.getStatus() != null) {
+                continue;
+            }
+            result.setStatus(BulkDecisionResult.OK);
+            String status = targetStatus.get(iz.getId());
+            DateRange range = ranges.get(iz.getId());
+            if (IzinTalebiService.STATUS_REJECTED.equals(status)) {
+                intervalIndex.release(LeaveIntervalIndex.employee(iz.getCalisanId()), iz.getId());
+            }
+            if (range != null) {
+                availability.update(iz.getCalisanId(), range, status);
+            }
+        }
+        charged.forEach(calisanId -> userCache.evict(User.builder().calisanId(calisanId).build()));
+
+        logger.info("Bulk decision {}: {} items, {} applied, {} balance reverts",
+                batchId, ordered.size(), applied.size() - reverted.size(), reverted.size());
+        return ordered;
+    }
+
+    // Ön kontrol için güncel bakiyeler; asıl koruma bulkWrite'taki remainingDays koşuludur
+    private Map<Integer, Integer> balances(Collection<IzinTalebi> requests) {
+        Set<Integer> calisanIds = new HashSet<>();
+        requests.forEach(iz -> calisanIds.add(iz.getCalisanId()));
+        Map<Integer, Integer> balances = new HashMap<>();
+        if (calisanIds.isEmpty()) {
+            return balances;
+        }
+        Query query = new Query(where("calisanId").in(calisanIds));
+        query.fields().include("calisanId", "remainingDays");
+        for (User user : mongoTemplate.find(query, User.class)) {
+            balances.put(user.getCalisanId(), user.getRemainingDays() == null ? 0 : user.getRemainingDays());
+        }
+        return balances;
+    }
+
+    // Durum değişiklikleri, bakiye düşümleri ve bakiyesi bu arada değişenlerin geri alınması
+    private void apply(String batchId, Map<String, IzinTalebi> pending, Map<String, String> targetStatus,
+                       Map<String, BulkDecisionResult> results, Map<String, Integer> days,
+                       Map<String, TeamCapacityService.Reservation> reservations, Set<String> applied,
+                       Map<Integer, List<IzinTalebi>> approvalsByEmployee, Set<Integer> charged,
+                       List<String> reverted) {
+        // 3) Durum değişiklikleri: tek sırasız bulkWrite, BEKLEMEDE koşuluyla
+        if (!pending.isEmpty()) {
+            BulkOperations statusOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, IzinTalebi.class);
+            for (IzinTalebi iz : pending.values()) {
+                statusOps.updateOne(
+                        new Query(where("_id").is(iz.getId()).and("requestStatus").is(IzinTalebiService.STATUS_PENDING)),
+                        new Update().set("requestStatus", targetStatus.get(iz.getId())).set(REQUEST_MARKER, batchId));
+            }
+            statusOps.execute();
+            Query marked = new Query(where("_id").in(pending.keySet()).and(REQUEST_MARKER).is(batchId));
+            marked.fields().include("_id");
+            mongoTemplate.find(marked, IzinTalebi.class).forEach(iz -> applied.add(iz.getId()));
+        }
+        for (IzinTalebi iz : pending.values()) {
+            if (!applied.contains(iz.getId())) {
+                // Aradaki sürede başka bir karar verilmiş
+                release(reservations.remove(iz.getId()));
+                fail(results.get(iz.getId()), BulkDecisionResult.CONFLICT, "İzin talebi zaten sonuçlandırılmış");
+            }
+        }
+
+        // 4) Bakiye düşümleri: çalışan başına toplam gün, tek sırasız bulkWrite
+        for (IzinTalebi iz : pending.values()) {
+            if (applied.contains(iz.getId()) && isApproval(targetStatus, iz)) {
+                approvalsByEmployee.computeIfAbsent(iz.getCalisanId(), c -> new ArrayList<>()).add(iz);
+            }
+        }
+        charged.addAll(chargeBalances(approvalsByEmployee, days, batchId));
+
+        // 5) Bakiyesi bu arada değişen çalışanların onaylarını geri al
+        approvalsByEmployee.forEach((calisanId, approvals) -> {
+            if (!charged.contains(calisanId)) {
+                approvals.forEach(iz -> reverted.add(iz.getId()));
+            }
+        });
+        if (!reverted.isEmpty()) {
+            mongoTemplate.updateMulti(
+                    new Query(where("_id").in(reverted).and(REQUEST_MARKER).is(batchId)),
+                    new Update().set("requestStatus", IzinTalebiService.STATUS_PENDING),
+                    IzinTalebi.class);
+        }
+        reverted.forEach(id -> {
+            release(reservations.remove(id));
+            fail(results.get(id), BulkDecisionResult.INSUFFICIENT_BALANCE, "Çalışanın yeterli izin bakiyesi yok");
+        });
+    }
+
+    // Bakiyesi düşülen çalışanlar; işaret alanı karar kesinleşince temizlenir
+    private Set<Integer> chargeBalances(Map<Integer, List<IzinTalebi>> approvalsByEmployee,
+                                        Map<String, Integer> days, String batchId) {
+        Set<Integer> charged = new HashSet<>();
+        if (approvalsByEmployee.isEmpty()) {
+            return charged;
+        }
+        BulkOperations balanceOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        approvalsByEmployee.forEach((calisanId, approvals) -> {
+            int total = total(approvals, days);
+            balanceOps.updateOne(
+                    new Query(where("calisanId").is(calisanId).and("remainingDays").gte(total)),
+                    new Update().inc("usedDays", total).inc("remainingDays", -total).addToSet(USER_MARKER, batchId));
+        });
+        balanceOps.execute();
+
+        Query marked = new Query(where("calisanId").in(approvalsByEmployee.keySet()).and(USER_MARKER).is(batchId));
+        marked.fields().include("calisanId");
+        mongoTemplate.find(marked, User.class).forEach(user -> charged.add(user.getCalisanId()));
+        return charged;
+    }
+
+    // Transaction yoksa yarım kalan kararı geri alır; işaretler hangi yazının bu çağrıya ait olduğunu
+    // gösterdiği için tekrar çalıştırmak güvenlidir. Transaction geri alındıysa işaretli kayıt kalmaz.
+    private void compensate(String batchId, Set<String> requestIds, Map<Integer, List<IzinTalebi>> approvalsByEmployee,
+                            Map<String, Integer> days, Map<String, TeamCapacityService.Reservation> reservations,
+                            RuntimeException cause) {
+        reservations.values().forEach(TeamCapacityService.Reservation::release);
+        reservations.clear();
+        try {
+            approvalsByEmployee.forEach((calisanId, approvals) -> {
+                int total = total(approvals, days);
+                mongoTemplate.updateFirst(
+                        new Query(where("calisanId").is(calisanId).and(USER_MARKER).is(batchId)),
+                        new Update().inc("usedDays", -total).inc("remainingDays", total).pull(USER_MARKER, batchId),
+                        User.class);
+                userCache.evict(User.builder().calisanId(calisanId).build());
+            });
+            mongoTemplate.updateMulti(new Query(where("_id").in(requestIds).and(REQUEST_MARKER).is(batchId)),
+                    new Update().set("requestStatus", IzinTalebiService.STATUS_PENDING).unset(REQUEST_MARKER),
+                    IzinTalebi.class);
+            logger.warn("Bulk decision {} failed and was rolled back", batchId);
+        } catch (RuntimeException e) {
+            // Asıl hata korunur; kalan işaretler elle temizlik için kayıtları gösterir
+            cause.addSuppressed(e);
+            logger.error("Bulk decision {} could not be rolled back, marked records need cleanup", batchId, e);
+        }
+    }
+
+    private static int total(List<IzinTalebi> approvals, Map<String, Integer> days) {
+        return approvals.stream().mapToInt(iz -> days.get(iz.getId())).sum();
+    }
+
+    private static boolean isApproval(Map<String, String> targetStatus, IzinTalebi iz) {
+        return IzinTalebiService.STATUS_APPROVED.equals(targetStatus.get(iz.getId()));
+    }
+
+    private static void fail(BulkDecisionResult result, String status, String message) {
+        result.setStatus(status);
+        result.setMessage(message);
+    }
+
+    private static void release(TeamCapacityService.Reservation reservation) {
+        if (reservation != null) {
+            reservation.release();
+        }
+    }
+}
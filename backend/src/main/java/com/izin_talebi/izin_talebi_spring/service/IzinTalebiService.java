@@ -1,33 +1,111 @@
 package com.izin_talebi.izin_talebi_spring.service;
 
+import com.izin_talebi.izin_talebi_spring.dto.KeysetPage;
+import com.izin_talebi.izin_talebi_spring.dto.SparseFieldset;
+import com.izin_talebi.izin_talebi_spring.model.DateRange;
 import com.izin_talebi.izin_talebi_spring.model.IzinTalebi;
 import com.izin_talebi.izin_talebi_spring.model.User;
+import com.izin_talebi.izin_talebi_spring.model.UserSnapshot;
 import com.izin_talebi.izin_talebi_spring.repository.IzinTalebiRepository;
-import com.izin_talebi.izin_talebi_spring.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import com.mongodb.MongoException;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
 
 @Service
 public class IzinTalebiService {
+    private static final Logger logger = LoggerFactory.getLogger(IzinTalebiService.class);
+
+    static final String STATUS_PENDING = "BEKLEMEDE";
+    static final String STATUS_APPROVED = "ONAYLANDI";
+    static final String STATUS_REJECTED = "REDDEDİLDİ";
+
+    private static final int MAX_TRANSACTION_ATTEMPTS = 5;
+    private static final long TRANSACTION_RETRY_BASE_MILLIS = 10;
 
     private final IzinTalebiRepository izinTalebiRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final MongoTemplate mongoTemplate;
+    private final WorkingDayCalendar calendar;
+    private final LeaveIntervalIndex intervalIndex;
+    private final TeamCapacityService teamCapacity;
+    private final AvailabilityIndex availability;
+    private final LeaveAnalysisQueue analysisQueue;
+    private final MongoTransactions mongoTransactions;
 
     @Autowired
-    public IzinTalebiService(IzinTalebiRepository izinTalebiRepository, UserRepository userRepository) {
+    public IzinTalebiService(IzinTalebiRepository izinTalebiRepository, UserCache userCache,
+                             MongoTemplate mongoTemplate, WorkingDayCalendar calendar,
+                             LeaveIntervalIndex intervalIndex, TeamCapacityService teamCapacity,
+                             AvailabilityIndex availability, LeaveAnalysisQueue analysisQueue,
+                             MongoTransactions mongoTransactions) {
         this.izinTalebiRepository = izinTalebiRepository;
-        this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.mongoTemplate = mongoTemplate;
+        this.calendar = calendar;
+        this.intervalIndex = intervalIndex;
+        this.teamCapacity = teamCapacity;
+        this.availability = availability;
+        this.analysisQueue = analysisQueue;
+        this.mongoTransactions = mongoTransactions;
     }
 
-    // İzin talebi oluştur
-    @Transactional
+    // İzin talebi oluştur; bekleyen ya da onaylı bir talebiyle çakışıyorsa yazmadan reddedilir
     public IzinTalebi createIzinTalebi(IzinTalebi izinTalebi) {
-        izinTalebi.setRequestStatus("BEKLEMEDE");
-        return izinTalebiRepository.save(izinTalebi);
+        DateRange range = DateRange.parse(izinTalebi.getRequestedDates());
+        if (calendar.chargeableDays(range) == 0) {
+            throw new IllegalArgumentException("Seçilen tarihlerde iş günü bulunmuyor");
+        }
+        if (!teamCapacity.hasRoom(teamCapacity.teamOf(izinTalebi.getCalisanId()), range)) {
+            throw new IllegalStateException("Ekip kapasitesi bu tarihlerde dolu");
+        }
+        izinTalebi.setRequestStatus(STATUS_PENDING);
+        if (izinTalebi.getRequestTime() == null || izinTalebi.getRequestTime().isBlank()) {
+            // ISO formatı tarih filtresinin sözlük sırasıyla çalışmasını sağlar
+            izinTalebi.setRequestTime(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).toString());
+        }
+
+        // Aralık yazmadan önce ayrılır; kimlik burada üretilir ki indeks kaydı dokümanla eşleşsin
+        izinTalebi.setId(new ObjectId().toHexString());
+        String owner = LeaveIntervalIndex.employee(izinTalebi.getCalisanId());
+        if (!intervalIndex.tryReserve(owner, izinTalebi.getId(), range)) {
+            throw new IllegalStateException("Bu tarihlerle çakışan bir izin talebiniz var");
+        }
+        // Açıklama analizi kuyruğa bırakılır; kayıt LLM yanıtını beklemez
+        izinTalebi.setAnalysisStatus(analysisQueue.admit(izinTalebi.getRequestDesc()));
+        izinTalebi.setAnalysisResult(null);
+        try {
+            IzinTalebi created = mongoTemplate.insert(izinTalebi);
+            availability.update(created.getCalisanId(), range, STATUS_PENDING);
+            if (LeaveAnalysisQueue.ANALYSIS_QUEUED.equals(created.getAnalysisStatus())) {
+                analysisQueue.enqueue(created);
+            }
+            return created;
+        } catch (RuntimeException e) {
+            intervalIndex.release(owner, izinTalebi.getId());
+            throw e;
+        }
     }
 
     // Tüm izin taleplerini getir
@@ -35,6 +113,47 @@ public class IzinTalebiService {
         return izinTalebiRepository.findAll();
     }
 
+    // İzin taleplerini _id'ye göre azalan sırada, devam token'ı ile sayfalı getir (skip/limit yerine aralık sorgusu)
+    public KeysetPage<IzinTalebi> getIzinTalepleriPage(Integer calisanId, String status, LocalDate from, LocalDate to,
+                                                       String cursor, int size, SparseFieldset fields) {
+        List<Criteria> filters = filters(calisanId, status, from, to);
+        if (cursor != null) {
+            filters.add(where("_id").lt(KeysetPage.decodeCursor(cursor)));
+        }
+
+        Query query = new Query();
+        if (!filters.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(filters));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "_id")).limit(size + 1);
+        fields.applyTo(query);
+        return KeysetPage.of(mongoTemplate.find(query, IzinTalebi.class), size, IzinTalebi::getId);
+    }
+
+    // Sadece seçili alanları Mongo'dan okuyarak listele; calisanId null ise tüm talepler
+    public List<IzinTalebi> getIzinTalepleri(Integer calisanId, SparseFieldset fields) {
+        Query query = calisanId == null ? new Query() : new Query(where("calisanId").is(calisanId));
+        return mongoTemplate.find(fields.applyTo(query), IzinTalebi.class);
+    }
+
+    // Listeleme ve dışa aktarım için ortak filtreler; requestTime ISO formatında karşılaştırılır
+    static List<Criteria> filters(Integer calisanId, String status, LocalDate from, LocalDate to) {
+        List<Criteria> filters = new ArrayList<>();
+        if (calisanId != null) {
+            filters.add(where("calisanId").is(calisanId));
+        }
+        if (status != null) {
+            filters.add(where("requestStatus").is(status));
+        }
+        if (from != null) {
+            filters.add(where("requestTime").gte(from.toString()));
+        }
+        if (to != null) {
+            filters.add(where("requestTime").lt(to.plusDays(1).toString()));
+        }
+        return filters;
+    }
+
     // Çalışana ait izin taleplerini getir
     public List<IzinTalebi> getIzinTalepleriByCalisanId(Integer calisanId) {
         return izinTalebiRepository.findByCalisanId(calisanId);
@@ -45,37 +164,151 @@ public class IzinTalebiService {
         return izinTalebiRepository.findById(id);
     }
 
-    // İzin talebini onayla
-    @Transactional
+    // İzin talebini onayla: durum değişimi ve bakiye düşümü koşullu atomik güncellemelerle yapılır.
+    // Replica set varsa ikisi tek transaction'da, yoksa bakiye yetersizse durum geri alınır.
     public Optional<IzinTalebi> approveIzinTalebi(String id) {
-        Optional<IzinTalebi> izinTalebiOpt = izinTalebiRepository.findById(id);
-        izinTalebiOpt.ifPresent(iz -> {
-            iz.setRequestStatus("ONAYLANDI");
-            izinTalebiRepository.save(iz);
-            
-            // Çalışanın kalan izin günlerini güncelle
-            userRepository.findByCalisanId(iz.getCalisanId()).ifPresent(user -> {
-                // Tarih aralığından gün sayısını hesapla
-                String[] dates = iz.getRequestedDates().split("-");
-                // Basit bir hesaplama - gerçek uygulamada daha detaylı hesaplama yapılmalı
-                int days = 5; // Örnek olarak 5 gün
-                
-                user.setUsedDays(user.getUsedDays() + days);
-                user.setRemainingDays(user.getRemainingDays() - days);
-                userRepository.save(user);
-            });
-        });
-        return izinTalebiOpt;
+        Optional<IzinTalebi> approved = approve(id);
+        approved.ifPresent(this::updateAvailability);
+        return approved;
+    }
+
+    private Optional<IzinTalebi> approve(String id) {
+        List<TeamCapacityService.Reservation> reserved = new ArrayList<>();
+        TransactionTemplate transactions = mongoTransactions.template();
+        if (transactions == null) {
+            return doApprove(id, reserved);
+        }
+        // Aynı çalışana eşzamanlı onaylar WriteConflict ile düşer; geçici hatalarda jitter'lı beklemeyle
+        // yeniden dene. Commit başarısız olursa bellekteki kapasite ayırması da geri alınır.
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactions.execute(tx -> doApprove(id, reserved));
+            } catch (RuntimeException e) {
+                reserved.forEach(TeamCapacityService.Reservation::release);
+                reserved.clear();
+                if (attempt >= MAX_TRANSACTION_ATTEMPTS || !isTransient(e)) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(retryDelayMillis(attempt));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // Yarısı sabit, yarısı rastgele üstel bekleme; çakışan onaylar aynı anda tekrar denemesin
+    private static long retryDelayMillis(int attempt) {
+        long ceiling = TRANSACTION_RETRY_BASE_MILLIS << (attempt - 1);
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof DataAccessException dataAccessException
+                && dataAccessException.getMostSpecificCause() instanceof MongoException mongoException
+                && mongoException.hasErrorLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL);
+    }
+
+    private Optional<IzinTalebi> doApprove(String id, List<TeamCapacityService.Reservation> reserved) {
+        IzinTalebi approved = decide(id, STATUS_APPROVED);
+        if (approved == null) {
+            return Optional.empty();
+        }
+
+        DateRange range;
+        int days;
+        try {
+            range = DateRange.parse(approved.getRequestedDates());
+            days = calendar.chargeableDays(range);
+        } catch (IllegalArgumentException e) {
+            revert(id);
+            throw e;
+        }
+
+        // Ekip kapasitesi bakiye düşülmeden önce ayrılır
+        TeamCapacityService.Reservation reservation =
+                teamCapacity.tryReserve(teamCapacity.teamOf(approved.getCalisanId()), range).orElse(null);
+        if (reservation == null) {
+            revert(id);
+            throw new IllegalStateException("Ekip kapasitesi bu tarihlerde dolu");
+        }
+        reserved.add(reservation);
+
+        // Bakiye yalnızca yeterliyse düşülür; okuma-değiştirme-yazma yok
+        UpdateResult result;
+        try {
+            result = mongoTemplate.updateFirst(
+                    new Query(where("calisanId").is(approved.getCalisanId()).and("remainingDays").gte(days)),
+                    new Update().inc("usedDays", days).inc("remainingDays", -days),
+                    User.class);
+        } catch (RuntimeException e) {
+            // Bakiye yazılamadıysa talep onaylı kalmamalı; geri alma da başarısız olursa asıl hata korunur
+            reservation.release();
+            try {
+                revert(id);
+            } catch (RuntimeException revertError) {
+                e.addSuppressed(revertError);
+            }
+            throw e;
+        }
+        // 0 günlük talepte $inc belgeyi değiştirmez; başarı eşleşmeyle ölçülür. Eşleşme yoksa ya çalışan
+        // kaydı yoktur ya da bakiye yetersizdir
+        if (result.getMatchedCount() == 0) {
+            reservation.release();
+            revert(id);
+            if (!mongoTemplate.exists(new Query(where("calisanId").is(approved.getCalisanId())), User.class)) {
+                throw new IllegalStateException("Talebin sahibi olan çalışan bulunamadı");
+            }
+            throw new IllegalStateException("Çalışanın yeterli izin bakiyesi yok");
+        }
+        userCache.evict(User.builder().calisanId(approved.getCalisanId()).build());
+        return Optional.of(approved);
     }
 
     // İzin talebini reddet
-    @Transactional
     public Optional<IzinTalebi> rejectIzinTalebi(String id) {
-        Optional<IzinTalebi> izinTalebiOpt = izinTalebiRepository.findById(id);
-        izinTalebiOpt.ifPresent(iz -> {
-            iz.setRequestStatus("REDDEDİLDİ");
-            izinTalebiRepository.save(iz);
+        Optional<IzinTalebi> rejected = Optional.ofNullable(decide(id, STATUS_REJECTED));
+        rejected.ifPresent(iz -> {
+            intervalIndex.release(LeaveIntervalIndex.employee(iz.getCalisanId()), iz.getId());
+            updateAvailability(iz);
         });
-        return izinTalebiOpt;
+        return rejected;
+    }
+
+    // Seçili ekipte ya da tüm şirkette verilen aralıkta izinli olanlar
+    public List<UserSnapshot> getIzinliler(DateRange range, String team, boolean includePending) {
+        return availability.whoIsOff(range, team, includePending);
+    }
+
+    private void updateAvailability(IzinTalebi iz) {
+        try {
+            availability.update(iz.getCalisanId(), DateRange.parse(iz.getRequestedDates()), iz.getRequestStatus());
+        } catch (IllegalArgumentException e) {
+            // Tarihi okunamayan eski kayıtlar indekste yer almaz
+            logger.debug("Skipping izin talebi {} with unparsable dates", iz.getId());
+        }
+    }
+
+    // Talep yalnızca BEKLEMEDE ise güncellenir; talep yoksa null, başka durumdaysa çakışma
+    private IzinTalebi decide(String id, String status) {
+        IzinTalebi updated = mongoTemplate.findAndModify(
+                new Query(where("_id").is(id).and("requestStatus").is(STATUS_PENDING)),
+                new Update().set("requestStatus", status),
+                FindAndModifyOptions.options().returnNew(true),
+                IzinTalebi.class);
+        if (updated == null && mongoTemplate.exists(new Query(where("_id").is(id)), IzinTalebi.class)) {
+            throw new IllegalStateException("İzin talebi zaten sonuçlandırılmış");
+        }
+        return updated;
+    }
+
+    // Transaction dışında çalışırken onaylanan talebi tekrar beklemeye al
+    private void revert(String id) {
+        mongoTemplate.updateFirst(
+                new Query(where("_id").is(id).and("requestStatus").is(STATUS_APPROVED)),
+                new Update().set("requestStatus", STATUS_PENDING),
+                IzinTalebi.class);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,76 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sabit, logaritmik aralıklı kovalarla gecikme histogramı. Kayıt kilitsizdir;
+ * yüzdelikler kova üst sınırı olarak raporlanır.
+ */
+final class LatencyHistogram {
+
+    private static final long[] BOUNDS_MILLIS = {10, 25, 50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000, 30_000};
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MILLIS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMillis = new LongAdder();
+
+    LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    void record(long millis) {
+        int i = 0;
+        while (i < BOUNDS_MILLIS.length && millis > BOUNDS_MILLIS[i]) {
+            i++;
+        }
+        buckets[i].increment();
+        count.increment();
+        sumMillis.add(millis);
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    long sumMillis() {
+        return sumMillis.sum();
+    }
+
+    // Son kova sınırsızdır; oraya düşen yüzdelik -1 olarak döner
+    long percentileMillis(double percentile) {
+        long total = count.sum();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            seen += buckets[i].sum();
+            if (seen >= rank) {
+                return BOUNDS_MILLIS[i];
+            }
+        }
+        return -1;
+    }
+
+    Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        long total = count.sum();
+        snapshot.put("count", total);
+        snapshot.put("meanMillis", total == 0 ? 0.0 : (double) sumMillis.sum() / total);
+        snapshot.put("p50Millis", percentileMillis(0.50));
+        snapshot.put("p95Millis", percentileMillis(0.95));
+        snapshot.put("p99Millis", percentileMillis(0.99));
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            histogram.put("le" + BOUNDS_MILLIS[i], buckets[i].sum());
+        }
+        histogram.put("inf", buckets[BOUNDS_MILLIS.length].sum());
+        snapshot.put("buckets", histogram);
+        return snapshot;
+    }
+}
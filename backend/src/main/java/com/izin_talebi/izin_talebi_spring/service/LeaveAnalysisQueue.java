@@ -0,0 +1,273 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import com.izin_talebi.izin_talebi_spring.model.AnalysisJob;
+import com.izin_talebi.izin_talebi_spring.model.IzinTalebi;
+import com.mongodb.client.result.UpdateResult;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * İzin talebi açıklamalarının LLM analizi için Mongo tabanlı, sınırlı kuyruk. Talep kaydı LLM'i
+ * beklemez; iş analysisJobs koleksiyonuna yazılır ve her instance'taki sınırlı sayıda işçi tarafından
+ * kiralanarak işlenir. Sonuç talebin analysisStatus/analysisResult alanlarına yazılır. Talep ve iş
+ * ayrı yazıldığından arada çöken instance'ın bıraktığı işsiz KUYRUKTA talepler periyodik olarak
+ * tekrar kuyruğa alınır.
+ */
+@Component
+public class LeaveAnalysisQueue {
+    private static final Logger logger = LoggerFactory.getLogger(LeaveAnalysisQueue.class);
+
+    // IzinTalebi.analysisStatus değerleri
+    public static final String ANALYSIS_QUEUED = "KUYRUKTA";
+    public static final String ANALYSIS_DONE = "TAMAMLANDI";
+    public static final String ANALYSIS_FAILED = "BASARISIZ";
+    public static final String ANALYSIS_SKIPPED = "ATLANDI";
+
+    // AnalysisJob.status değerleri
+    static final String JOB_PENDING = "PENDING";
+    static final String JOB_RUNNING = "RUNNING";
+    static final String JOB_FAILED = "FAILED";
+
+    private static final int SWEEP_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final OpenAIService openAIService;
+    private final long capacity;
+    private final int concurrency;
+    private final int maxAttempts;
+    private final long leaseMillis;
+    private final long retryBaseMillis;
+    private final long orphanGraceMillis;
+    private final String owner;
+    private final ExecutorService workers;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    @Autowired
+    public LeaveAnalysisQueue(MongoTemplate mongoTemplate, OpenAIService openAIService,
+                              @Value("${izin.analysis.queue-capacity:10000}") long capacity,
+                              @Value("${izin.analysis.concurrency:4}") int concurrency,
+                              @Value("${izin.analysis.max-attempts:5}") int maxAttempts,
+                              @Value("${izin.analysis.lease-seconds:120}") long leaseSeconds,
+                              @Value("${izin.analysis.retry-base-millis:2000}") long retryBaseMillis,
+                              @Value("${izin.analysis.orphan-grace-seconds:300}") long orphanGraceSeconds) {
+        this.mongoTemplate = mongoTemplate;
+        this.openAIService = openAIService;
+        this.capacity = capacity;
+        this.concurrency = Math.max(concurrency, 0);
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.leaseMillis = leaseSeconds * 1000;
+        this.retryBaseMillis = retryBaseMillis;
+        this.orphanGraceMillis = orphanGraceSeconds * 1000;
+        this.owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(this.concurrency, 1), runnable -> {
+            Thread thread = new Thread(runnable, "llm-analysis-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Talep kaydedilmeden önce çağrılır; açıklama yoksa null, kuyruk doluysa ATLANDI döner
+    public String admit(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        long backlog = mongoTemplate.count(new Query(where("status").in(JOB_PENDING, JOB_RUNNING)), AnalysisJob.class);
+        if (backlog >= capacity) {
+            skipped.increment();
+            logger.warn("Analysis queue is full ({} jobs), skipping analysis", backlog);
+            return ANALYSIS_SKIPPED;
+        }
+        return ANALYSIS_QUEUED;
+    }
+
+    // Talep kaydedildikten sonra işi yazar; yazılamazsa talep ATLANDI olarak işaretlenir, kayıt geri alınmaz
+    public void enqueue(IzinTalebi izinTalebi) {
+        Date now = new Date();
+        try {
+            mongoTemplate.insert(AnalysisJob.builder()
+                    .id(izinTalebi.getId())
+                    .text(izinTalebi.getRequestDesc())
+                    .status(JOB_PENDING)
+                    .createdAt(now)
+                    .availableAt(now)
+                    .build());
+        } catch (DuplicateKeyException e) {
+            // Aynı talep zaten kuyrukta
+        } catch (DataAccessException e) {
+            logger.warn("Analysis job for {} could not be queued: {}", izinTalebi.getId(), e.getMessage());
+            skipped.increment();
+            setResult(izinTalebi.getId(), ANALYSIS_SKIPPED, null);
+            izinTalebi.setAnalysisStatus(ANALYSIS_SKIPPED);
+        }
+    }
+
+    // Boş işçi sayısı kadar iş kiralanır; işçiler doluyken yeni iş alınmaz (geri basınç)
+    @Scheduled(fixedDelayString = "${izin.analysis.poll-millis:1000}")
+    public void poll() {
+        while (active.get() < concurrency) {
+            AnalysisJob job = claim();
+            if (job == null) {
+                return;
+            }
+            active.incrementAndGet();
+            workers.execute(() -> {
+                try {
+                    process(job);
+                } finally {
+                    active.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    // Bekleme süresi dolan ya da kirası sona ermiş (çöken instance) en eski iş
+    private AnalysisJob claim() {
+        Date now = new Date();
+        Query query = new Query(new Criteria().orOperator(
+                where("status").is(JOB_PENDING).and("availableAt").lte(now),
+                where("status").is(JOB_RUNNING).and("lockedUntil").lt(now)))
+                .with(Sort.by(Sort.Direction.ASC, "availableAt"));
+        Update update = new Update()
+                .set("status", JOB_RUNNING)
+                .set("owner", owner)
+                .set("lockedUntil", new Date(now.getTime() + leaseMillis))
+                .inc("attempts", 1);
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), AnalysisJob.class);
+    }
+
+    private void process(AnalysisJob job) {
+        try {
+            String result = openAIService.analyze(job.getText());
+            // Sonucu yalnızca kaydı hâlâ elinde tutan instance yazar; silme sonrası yazım yarıda kalırsa
+            // talep işsiz KUYRUKTA kalır ve sweepOrphans tarafından tekrar kuyruğa alınır
+            if (mongoTemplate.remove(ownedBy(job.getId()), AnalysisJob.class).getDeletedCount() > 0) {
+                setResult(job.getId(), ANALYSIS_DONE, result);
+                completed.increment();
+            } else {
+                logger.info("Lease on analysis job {} was lost, discarding result", job.getId());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reschedule(job, 0, "interrupted");
+        } catch (Exception e) {
+            String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            if (job.getAttempts() >= maxAttempts) {
+                UpdateResult marked = mongoTemplate.updateFirst(ownedBy(job.getId()),
+                        new Update().set("status", JOB_FAILED).set("lastError", error).unset("owner").unset("lockedUntil"),
+                        AnalysisJob.class);
+                if (marked.getModifiedCount() > 0) {
+                    setResult(job.getId(), ANALYSIS_FAILED, null);
+                    failed.increment();
+                    logger.warn("Analysis of {} failed after {} attempts: {}", job.getId(), job.getAttempts(), error);
+                }
+            } else {
+                retried.increment();
+                reschedule(job, backoffMillis(job.getAttempts()), error);
+            }
+        }
+    }
+
+    // Grace süresinden eski, KUYRUKTA olup iş kaydı olmayan talepler; $lookup analysisJobs._id indeksini kullanır
+    @Scheduled(fixedDelayString = "${izin.analysis.sweep-millis:60000}",
+            initialDelayString = "${izin.analysis.sweep-millis:60000}")
+    public void sweepOrphans() {
+        ObjectId cutoff = new ObjectId(new Date(System.currentTimeMillis() - orphanGraceMillis));
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(where("analysisStatus").is(ANALYSIS_QUEUED).and("_id").lt(cutoff)),
+                Aggregation.lookup(mongoTemplate.getCollectionName(AnalysisJob.class), "_id", "_id", "job"),
+                Aggregation.match(where("job").size(0)),
+                Aggregation.project("requestDesc"),
+                Aggregation.limit(SWEEP_BATCH_SIZE));
+        List<IzinTalebi> orphans = mongoTemplate.aggregate(aggregation, IzinTalebi.class, IzinTalebi.class)
+                .getMappedResults();
+        orphans.forEach(this::enqueue);
+        if (!orphans.isEmpty()) {
+            logger.warn("Re-queued {} analysis requests that had no job", orphans.size());
+        }
+    }
+
+    private void reschedule(AnalysisJob job, long delayMillis, String error) {
+        mongoTemplate.updateFirst(ownedBy(job.getId()),
+                new Update()
+                        .set("status", JOB_PENDING)
+                        .set("availableAt", new Date(System.currentTimeMillis() + delayMillis))
+                        .set("lastError", error)
+                        .unset("owner")
+                        .unset("lockedUntil"),
+                AnalysisJob.class);
+    }
+
+    // Jitter'lı üstel bekleme; LLM tarafı toparlanırken işler aynı anda geri dönmesin
+    private long backoffMillis(int attempts) {
+        long ceiling = retryBaseMillis << Math.min(attempts - 1, 16);
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+
+    // Kira başka bir instance'a geçtiyse sonuç yazılmaz
+    private Query ownedBy(String id) {
+        return new Query(where("_id").is(id).and("owner").is(owner));
+    }
+
+    private void setResult(String izinTalebiId, String status, String result) {
+        Update update = new Update().set("analysisStatus", status);
+        if (result != null) {
+            update.set("analysisResult", result);
+        }
+        mongoTemplate.updateFirst(new Query(where("_id").is(izinTalebiId)), update, IzinTalebi.class);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", mongoTemplate.count(new Query(where("status").is(JOB_PENDING)), AnalysisJob.class));
+        stats.put("running", mongoTemplate.count(new Query(where("status").is(JOB_RUNNING)), AnalysisJob.class));
+        stats.put("failedJobs", mongoTemplate.count(new Query(where("status").is(JOB_FAILED)), AnalysisJob.class));
+        stats.put("capacity", capacity);
+        stats.put("concurrency", concurrency);
+        stats.put("activeWorkers", active.get());
+        stats.put("completed", completed.sum());
+        stats.put("retried", retried.sum());
+        stats.put("failed", failed.sum());
+        stats.put("skipped", skipped.sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+}
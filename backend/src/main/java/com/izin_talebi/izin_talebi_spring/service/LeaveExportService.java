@@ -0,0 +1,171 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.izin_talebi.izin_talebi_spring.model.DateRange;
+import com.izin_talebi.izin_talebi_spring.model.IzinTalebi;
+import com.izin_talebi.izin_talebi_spring.model.LeaveRequest;
+import com.izin_talebi.izin_talebi_spring.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * İzin taleplerini Mongo cursor'ından okuyup satır satır NDJSON ya da CSV olarak yazar.
+ * Koleksiyonun tamamı belleğe alınmaz; bellek kullanımı kayıt sayısından bağımsızdır.
+ */
+@Service
+public class LeaveExportService {
+
+    public static final String FORMAT_CSV = "csv";
+
+    private static final int CURSOR_BATCH_SIZE = 500;
+    private static final int FLUSH_EVERY = 500;
+
+    private static final List<String> IZIN_TALEBI_COLUMNS =
+            List.of("id", "calisanId", "requestTime", "requestedDates", "workingDays", "requestStatus", "requestDesc");
+    private static final List<String> LEAVE_REQUEST_COLUMNS =
+            List.of("id", "userId", "startDate", "endDate", "workingDays", "type", "status", "description", "createdAt", "updatedAt");
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final WorkingDayCalendar calendar;
+
+    @Autowired
+    public LeaveExportService(MongoTemplate mongoTemplate, ObjectMapper objectMapper, WorkingDayCalendar calendar) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.calendar = calendar;
+    }
+
+    public void exportIzinTalepleri(Integer calisanId, String status, LocalDate from, LocalDate to,
+                                    String format, OutputStream out) throws IOException {
+        Query query = streamingQuery(IzinTalebiService.filters(calisanId, status, from, to));
+        try (Stream<IzinTalebi> stream = mongoTemplate.stream(query, IzinTalebi.class)) {
+            write(stream.map(this::toIzinTalebiRow).iterator(), IZIN_TALEBI_COLUMNS, format, out);
+        }
+    }
+
+    public void exportLeaveRequests(User user, String status, LocalDate from, LocalDate to,
+                                    String format, OutputStream out) throws IOException {
+        Query query = streamingQuery(LeaveRequestService.filters(user, status, from, to));
+        try (Stream<LeaveRequest> stream = mongoTemplate.stream(query, LeaveRequest.class)) {
+            write(stream.map(this::toLeaveRequestRow).iterator(), LEAVE_REQUEST_COLUMNS, format, out);
+        }
+    }
+
+    private Query streamingQuery(List<Criteria> filters) {
+        Query query = new Query();
+        if (!filters.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(filters));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "_id"));
+        query.cursorBatchSize(CURSOR_BATCH_SIZE);
+        return query;
+    }
+
+    private void write(Iterator<Map<String, Object>> rows, List<String> columns, String format,
+                       OutputStream out) throws IOException {
+        boolean csv = FORMAT_CSV.equalsIgnoreCase(format);
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        if (csv) {
+            // Excel'in Türkçe karakterleri doğru açması için BOM
+            writer.write('\uFEFF');
+            writeCsvLine(writer, columns);
+        }
+
+        int written = 0;
+        while (rows.hasNext()) {
+            Map<String, Object> row = rows.next();
+            if (csv) {
+                writeCsvLine(writer, columns.stream().map(row::get).toList());
+            } else {
+                writer.write(objectMapper.writeValueAsString(row));
+                writer.write('\n');
+            }
+            if (++written % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeCsvLine(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(values.get(i)));
+        }
+        writer.write("\r\n");
+    }
+
+    private static String escapeCsv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    private Map<String, Object> toIzinTalebiRow(IzinTalebi iz) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", iz.getId());
+        row.put("calisanId", iz.getCalisanId());
+        row.put("requestTime", iz.getRequestTime());
+        row.put("requestedDates", iz.getRequestedDates());
+        row.put("workingDays", workingDays(iz.getRequestedDates()));
+        row.put("requestStatus", iz.getRequestStatus());
+        row.put("requestDesc", iz.getRequestDesc());
+        return row;
+    }
+
+    // Eski kayıtlarda tarih metni bozuk olabilir; dışa aktarımı kesmek yerine boş bırak
+    private Double workingDays(String requestedDates) {
+        try {
+            return calendar.workingDays(calendar.getDefaultSite(), DateRange.parse(requestedDates));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private Double workingDays(LocalDate start, LocalDate end) {
+        try {
+            return calendar.workingDays(calendar.getDefaultSite(), new DateRange(start, end));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private Map<String, Object> toLeaveRequestRow(LeaveRequest lr) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", lr.getId());
+        row.put("userId", lr.getUser() != null ? lr.getUser().getUserId() : null);
+        row.put("startDate", lr.getStartDate() != null ? lr.getStartDate().toString() : null);
+        row.put("endDate", lr.getEndDate() != null ? lr.getEndDate().toString() : null);
+        row.put("workingDays", workingDays(lr.getStartDate(), lr.getEndDate()));
+        row.put("type", lr.getType());
+        row.put("status", lr.getStatus());
+        row.put("description", lr.getDescription());
+        row.put("createdAt", lr.getCreatedAt() != null ? lr.getCreatedAt().toString() : null);
+        row.put("updatedAt", lr.getUpdatedAt() != null ? lr.getUpdatedAt().toString() : null);
+        return row;
+    }
+}
@@ -0,0 +1,185 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import com.izin_talebi.izin_talebi_spring.model.DateRange;
+import com.izin_talebi.izin_talebi_spring.model.IzinTalebi;
+import com.izin_talebi.izin_talebi_spring.model.LeaveRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Çalışan başına bekleyen ve onaylı izin aralıklarını tutan bellek içi indeks.
+ * Yeni talep yazılmadan önce çakışma burada kontrol edilir; açılışta Mongo'dan doldurulur,
+ * oluşturma ve karar kod yolları tarafından güncel tutulur. Doldurma bitene kadar kontroller bekler;
+ * boş indekse karşı çakışan bir talep kabul edilmez.
+ */
+@Component
+public class LeaveIntervalIndex {
+    private static final Logger logger = LoggerFactory.getLogger(LeaveIntervalIndex.class);
+
+    private static final int CURSOR_BATCH_SIZE = 500;
+    private static final long READY_TIMEOUT_SECONDS = 30;
+
+    private final MongoTemplate mongoTemplate;
+    private volatile Map<String, IntervalTreap> owners = new ConcurrentHashMap<>();
+    // Kontrol ve güncellemeler okuma kilidiyle, doldurma yazma kilidiyle çalışır
+    private final ReadWriteLock warmUpLock = new ReentrantReadWriteLock();
+    private final CountDownLatch ready = new CountDownLatch(1);
+
+    @Autowired
+    public LeaveIntervalIndex(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // izinTalepleri kayıtları çalışan ID, leave_requests kayıtları kullanıcı ID ile gruplanır
+    public static String employee(Integer calisanId) {
+        return "calisan:" + calisanId;
+    }
+
+    public static String user(String userId) {
+        return "user:" + userId;
+    }
+
+    // Çakışma yoksa aralığı ayırır ve true döner; kontrol ve ekleme sahip bazında atomiktir
+    public boolean tryReserve(String owner, String id, DateRange range) {
+        lockShared();
+        try {
+            IntervalTreap treap = owners.computeIfAbsent(owner, o -> new IntervalTreap());
+            synchronized (treap) {
+                long start = range.start().toEpochDay();
+                long end = range.end().toEpochDay();
+                List<String> conflicts = treap.overlapping(start, end);
+                conflicts.remove(id);
+                if (!conflicts.isEmpty()) {
+                    return false;
+                }
+                treap.insert(id, start, end);
+                return true;
+            }
+        } finally {
+            warmUpLock.readLock().unlock();
+        }
+    }
+
+    public List<String> overlapping(String owner, DateRange range) {
+        lockShared();
+        try {
+            IntervalTreap treap = owners.get(owner);
+            if (treap == null) {
+                return List.of();
+            }
+            synchronized (treap) {
+                return treap.overlapping(range.start().toEpochDay(), range.end().toEpochDay());
+            }
+        } finally {
+            warmUpLock.readLock().unlock();
+        }
+    }
+
+    public void put(String owner, String id, DateRange range) {
+        lockShared();
+        try {
+            insert(owners, owner, id, range);
+        } finally {
+            warmUpLock.readLock().unlock();
+        }
+    }
+
+    public void release(String owner, String id) {
+        lockShared();
+        try {
+            IntervalTreap treap = owners.get(owner);
+            if (treap != null) {
+                synchronized (treap) {
+                    treap.remove(id);
+                }
+            }
+        } finally {
+            warmUpLock.readLock().unlock();
+        }
+    }
+
+    // Yeni indeks ayrı kurulur ve tek atamayla devreye girer; yazma kilidi süresince kontroller bekler
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+        warmUpLock.writeLock().lock();
+        try {
+            Map<String, IntervalTreap> warmed = new ConcurrentHashMap<>();
+            int loaded = 0;
+
+            Query izinQuery = new Query(where("requestStatus").in(IzinTalebiService.STATUS_PENDING, IzinTalebiService.STATUS_APPROVED));
+            izinQuery.fields().include("calisanId", "requestedDates");
+            izinQuery.cursorBatchSize(CURSOR_BATCH_SIZE);
+            try (Stream<IzinTalebi> stream = mongoTemplate.stream(izinQuery, IzinTalebi.class)) {
+                for (IzinTalebi iz : (Iterable<IzinTalebi>) stream::iterator) {
+                    try {
+                        insert(warmed, employee(iz.getCalisanId()), iz.getId(), DateRange.parse(iz.getRequestedDates()));
+                        loaded++;
+                    } catch (IllegalArgumentException e) {
+                        logger.debug("Skipping izin talebi {} with unparsable dates", iz.getId());
+                    }
+                }
+            }
+
+            Query leaveQuery = new Query(where("status").in(LeaveRequestService.STATUS_PENDING, LeaveRequestService.STATUS_APPROVED));
+            leaveQuery.fields().include("user.userId", "startDate", "endDate");
+            leaveQuery.cursorBatchSize(CURSOR_BATCH_SIZE);
+            try (Stream<LeaveRequest> stream = mongoTemplate.stream(leaveQuery, LeaveRequest.class)) {
+                for (LeaveRequest lr : (Iterable<LeaveRequest>) stream::iterator) {
+                    if (lr.getUser() == null) {
+                        continue;
+                    }
+                    try {
+                        insert(warmed, user(lr.getUser().getUserId()), lr.getId(), new DateRange(lr.getStartDate(), lr.getEndDate()));
+                        loaded++;
+                    } catch (IllegalArgumentException e) {
+                        logger.debug("Skipping leave request {} with invalid dates", lr.getId());
+                    }
+                }
+            }
+            owners = warmed;
+            logger.info("Leave interval index warmed with {} ranges for {} owners in {} ms",
+                    loaded, warmed.size(), System.currentTimeMillis() - start);
+        } finally {
+            warmUpLock.writeLock().unlock();
+            ready.countDown();
+        }
+    }
+
+    private static void insert(Map<String, IntervalTreap> owners, String owner, String id, DateRange range) {
+        IntervalTreap treap = owners.computeIfAbsent(owner, o -> new IntervalTreap());
+        synchronized (treap) {
+            treap.insert(id, range.start().toEpochDay(), range.end().toEpochDay());
+        }
+    }
+
+    // İlk doldurma bitmeden çakışma kontrolü yapılmaz
+    private void lockShared() {
+        try {
+            if (!ready.await(READY_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("İzin indeksi henüz yüklenmedi, lütfen tekrar deneyin");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("İzin indeksi beklenirken kesildi", e);
+        }
+        warmUpLock.readLock().lock();
+    }
+}
@@ -1,31 +1,82 @@
 package com.izin_talebi.izin_talebi_spring.service;
 
+import com.izin_talebi.izin_talebi_spring.dto.KeysetPage;
+import com.izin_talebi.izin_talebi_spring.dto.SparseFieldset;
+import com.izin_talebi.izin_talebi_spring.model.DateRange;
 import com.izin_talebi.izin_talebi_spring.model.LeaveRequest;
 import com.izin_talebi.izin_talebi_spring.model.User;
+import com.izin_talebi.izin_talebi_spring.model.UserSnapshot;
 import com.izin_talebi.izin_talebi_spring.repository.LeaveRequestRepository;
+import com.izin_talebi.izin_talebi_spring.repository.UserRepository;
 import jakarta.transaction.Transactional;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
 @Service
 public class LeaveRequestService {
 
+    static final String STATUS_PENDING = "PENDING";
+    static final String STATUS_APPROVED = "APPROVED";
+    static final String STATUS_REJECTED = "REJECTED";
+
     private final LeaveRequestRepository leaveRequestRepository;
+    private final MongoTemplate mongoTemplate;
+    private final WorkingDayCalendar calendar;
+    private final LeaveIntervalIndex intervalIndex;
+    private final UserRepository userRepository;
+    private final UserCache userCache;
 
     @Autowired
-    public LeaveRequestService(LeaveRequestRepository leaveRequestRepository) {
+    public LeaveRequestService(LeaveRequestRepository leaveRequestRepository, MongoTemplate mongoTemplate,
+                               WorkingDayCalendar calendar, LeaveIntervalIndex intervalIndex,
+                               UserRepository userRepository, UserCache userCache) {
         this.leaveRequestRepository = leaveRequestRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.calendar = calendar;
+        this.intervalIndex = intervalIndex;
+        this.userRepository = userRepository;
+        this.userCache = userCache;
     }
 
-    // İzin talebi oluştur
-    @Transactional
+    // İzin talebi oluştur; bekleyen ya da onaylı bir talebiyle çakışıyorsa yazmadan reddedilir
     public LeaveRequest createLeaveRequest(User user, LeaveRequest leaveRequest) {
-        leaveRequest.setUser(user);
-        leaveRequest.setStatus("PENDING");
-        return leaveRequestRepository.save(leaveRequest);
+        DateRange range = DateRange.leave(leaveRequest.getStartDate(), leaveRequest.getEndDate());
+        if (calendar.chargeableDays(range) == 0) {
+            throw new IllegalArgumentException("Seçilen tarihlerde iş günü bulunmuyor");
+        }
+        // Durumsuz modda principal yalnızca token claim'lerini taşır (adSoyad yok); özet tam kullanıcıdan alınır
+        User current = userCache.findByEmail(user.getEmail(), () -> userRepository.findByEmail(user.getEmail()))
+                .orElseThrow(() -> new IllegalStateException("Kullanıcı bulunamadı"));
+        leaveRequest.setUser(UserSnapshot.of(current));
+        leaveRequest.setStatus(STATUS_PENDING);
+        if (leaveRequest.getCreatedAt() == null) {
+            leaveRequest.setCreatedAt(LocalDate.now());
+        }
+
+        leaveRequest.setId(new ObjectId().toHexString());
+        String owner = LeaveIntervalIndex.user(current.getId());
+        if (!intervalIndex.tryReserve(owner, leaveRequest.getId(), range)) {
+            throw new IllegalStateException("Bu tarihlerle çakışan bir izin talebiniz var");
+        }
+        try {
+            return mongoTemplate.insert(leaveRequest);
+        } catch (RuntimeException e) {
+            intervalIndex.release(owner, leaveRequest.getId());
+            throw e;
+        }
     }
 
     // Tüm izin taleplerini getir
@@ -33,9 +84,62 @@ public class LeaveRequestService {
         return leaveRequestRepository.findAll();
     }
 
+    // İzin taleplerini _id'ye göre azalan sırada, devam token'ı ile sayfalı getir; user null ise tüm kullanıcılar
+    public KeysetPage<LeaveRequest> getLeaveRequestsPage(User user, String status, LocalDate from, LocalDate to,
+                                                         String cursor, int size, SparseFieldset fields) {
+        List<Criteria> filters = filters(user, status, from, to);
+        if (cursor != null) {
+            filters.add(where("_id").lt(KeysetPage.decodeCursor(cursor)));
+        }
+
+        Query query = new Query();
+        if (!filters.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(filters));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "_id")).limit(size + 1);
+        fields.applyTo(query);
+        return KeysetPage.of(mongoTemplate.find(query, LeaveRequest.class), size, LeaveRequest::getId);
+    }
+
+    // Sadece seçili alanları Mongo'dan okuyarak listele; user null ise tüm talepler
+    public List<LeaveRequest> getLeaveRequests(User user, SparseFieldset fields) {
+        Query query = user == null ? new Query() : new Query(where("user.userId").is(user.getId()));
+        return mongoTemplate.find(fields.applyTo(query), LeaveRequest.class);
+    }
+
+    // Listeleme ve dışa aktarım için ortak filtreler
+    static List<Criteria> filters(User user, String status, LocalDate from, LocalDate to) {
+        List<Criteria> filters = new ArrayList<>();
+        if (user != null) {
+            filters.add(where("user.userId").is(user.getId()));
+        }
+        if (status != null) {
+            filters.add(where("status").is(status));
+        }
+        if (from != null) {
+            filters.add(where("createdAt").gte(from));
+        }
+        if (to != null) {
+            filters.add(where("createdAt").lte(to));
+        }
+        return filters;
+    }
+
     // Kullanıcıya ait izin taleplerini getir
     public List<LeaveRequest> getLeaveRequestsByUser(User user) {
-        return leaveRequestRepository.findByUser(user);
+        return leaveRequestRepository.findByUserUserId(user.getId());
+    }
+
+    // Kullanıcının adı ya da pozisyonu değiştiğinde gömülü özetleri tek updateMulti ile tazele
+    public void syncUserSnapshot(User user) {
+        if (user.getId() == null) {
+            return;
+        }
+        Update update = new Update()
+                .set("user.calisanId", user.getCalisanId())
+                .set("user.adSoyad", user.getAdSoyad())
+                .set("user.pozisyon", user.getPozisyon());
+        mongoTemplate.updateMulti(new Query(where("user.userId").is(user.getId())), update, LeaveRequest.class);
     }
 
     // İzin talebini ID ile bul
@@ -48,7 +152,7 @@ public class LeaveRequestService {
     public Optional<LeaveRequest> approveLeaveRequest(String id) {
         Optional<LeaveRequest> leaveRequestOpt = leaveRequestRepository.findById(id);
         leaveRequestOpt.ifPresent(lr -> {
-            lr.setStatus("APPROVED");
+            lr.setStatus(STATUS_APPROVED);
             leaveRequestRepository.save(lr);
         });
         return leaveRequestOpt;
@@ -59,8 +163,11 @@ public class LeaveRequestService {
     public Optional<LeaveRequest> rejectLeaveRequest(String id) {
         Optional<LeaveRequest> leaveRequestOpt = leaveRequestRepository.findById(id);
         leaveRequestOpt.ifPresent(lr -> {
-            lr.setStatus("REJECTED");
+            lr.setStatus(STATUS_REJECTED);
             leaveRequestRepository.save(lr);
+            if (lr.getUser() != null) {
+                intervalIndex.release(LeaveIntervalIndex.user(lr.getUser().getUserId()), lr.getId());
+            }
         });
         return leaveRequestOpt;
     }
@@ -0,0 +1,178 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LLM yanıtları için içerik adresli önbellek. Anahtar, normalize edilmiş istem metni ile model ve
+ * parametrelerin SHA-256 özetidir. Bellekte boyut ve TTL sınırlı LRU tutulur; isteğe bağlı ikinci
+ * katman Mongo'da TTL indeksli bir koleksiyondur, böylece kayıtlar yeniden başlatmada kaybolmaz
+ * ve instance'lar arasında paylaşılır.
+ */
+@Component
+public class LlmResponseCache {
+    private static final Logger logger = LoggerFactory.getLogger(LlmResponseCache.class);
+
+    // TTL indeksi IndexBootstrap tarafından openai.cache.persistent-ttl-seconds ile oluşturulur
+    public static final String COLLECTION = "llmCache";
+    private static final Locale TURKISH = Locale.forLanguageTag("tr");
+
+    private final MongoTemplate mongoTemplate;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final boolean persistent;
+    private final long persistentTtlSeconds;
+
+    private final LinkedHashMap<String, Entry> entries;
+
+    private long memoryHits;
+    private long persistentHits;
+    private long misses;
+    private long evictions;
+    // İsabetlerde dış çağrı yapılmadığı için kazanılan süre (kaydın ilk çağrı süresi üzerinden)
+    private long savedMillis;
+
+    @Autowired
+    public LlmResponseCache(MongoTemplate mongoTemplate,
+                            @Value("${openai.cache.max-size:1000}") int maxSize,
+                            @Value("${openai.cache.ttl-seconds:86400}") long ttlSeconds,
+                            @Value("${openai.cache.persistent:false}") boolean persistent,
+                            @Value("${openai.cache.persistent-ttl-seconds:604800}") long persistentTtlSeconds) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.persistent = persistent;
+        this.persistentTtlSeconds = persistentTtlSeconds;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > LlmResponseCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Büyük/küçük harf, Unicode biçimi ve boşluk farkları aynı anahtarı üretir
+    public static String key(String prompt, String model, Object... parameters) {
+        String normalized = Normalizer.normalize(prompt == null ? "" : prompt, Normalizer.Form.NFC)
+                .strip()
+                .replaceAll("\\s+", " ")
+                .toLowerCase(TURKISH);
+        StringBuilder material = new StringBuilder(model).append('\u0000').append(normalized);
+        for (Object parameter : parameters) {
+            material.append('\u0000').append(parameter);
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(material.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Optional<String> get(String key) {
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt > System.currentTimeMillis()) {
+                    memoryHits++;
+                    savedMillis += entry.latencyMillis;
+                    return Optional.of(entry.response);
+                }
+                entries.remove(key);
+                evictions++;
+            }
+        }
+
+        // Mongo okuması kilit dışında yapılır
+        Entry stored = persistent ? loadPersistent(key) : null;
+        synchronized (this) {
+            if (stored == null) {
+                misses++;
+                return Optional.empty();
+            }
+            persistentHits++;
+            savedMillis += stored.latencyMillis;
+            entries.put(key, stored);
+            return Optional.of(stored.response);
+        }
+    }
+
+    public void put(String key, String response, long latencyMillis) {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            entries.put(key, new Entry(response, latencyMillis, now + ttlMillis));
+        }
+        if (persistent) {
+            try {
+                mongoTemplate.save(new Document("_id", key)
+                        .append("response", response)
+                        .append("latencyMillis", latencyMillis)
+                        .append("createdAt", new Date(now)), COLLECTION);
+            } catch (DataAccessException e) {
+                logger.warn("LLM cache entry could not be persisted: {}", e.getMessage());
+            }
+        }
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long hits = memoryHits + persistentHits;
+        long lookups = hits + misses;
+        stats.put("size", entries.size());
+        stats.put("persistent", persistent);
+        stats.put("memoryHits", memoryHits);
+        stats.put("persistentHits", persistentHits);
+        stats.put("misses", misses);
+        stats.put("hitRate", lookups == 0 ? 0.0 : (double) hits / lookups);
+        stats.put("evictions", evictions);
+        stats.put("savedMillis", savedMillis);
+        return stats;
+    }
+
+    // Mongo TTL izleyicisi dakikada bir çalışır; süresi geçmiş ama henüz silinmemiş kayıtlar burada elenir
+    private Entry loadPersistent(String key) {
+        try {
+            Document document = mongoTemplate.findById(key, Document.class, COLLECTION);
+            if (document == null) {
+                return null;
+            }
+            Date createdAt = document.getDate("createdAt");
+            long persistentExpiresAt = createdAt.getTime() + TimeUnit.SECONDS.toMillis(persistentTtlSeconds);
+            long now = System.currentTimeMillis();
+            if (persistentExpiresAt <= now) {
+                return null;
+            }
+            Number latency = document.get("latencyMillis", Number.class);
+            return new Entry(document.getString("response"), latency != null ? latency.longValue() : 0,
+                    Math.min(now + ttlMillis, persistentExpiresAt));
+        } catch (DataAccessException e) {
+            logger.warn("LLM cache lookup failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private record Entry(String response, long latencyMillis, long expiresAt) {
+    }
+}
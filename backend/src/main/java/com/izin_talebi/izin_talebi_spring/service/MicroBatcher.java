@@ -0,0 +1,146 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Kısa bir pencere içinde gelen istekleri toplayıp tek bir toplu çağrıyla gönderir. İlk istekle
+ * pencere açılır; pencere dolunca ya da maxBatchSize'a ulaşılınca toplu çağrı yapılır ve sonuçlar
+ * sırayla her çağıranın future'ına dağıtılır. Toplu çağrı bir kalem için null dönebilir;
+ * çağrının tamamı hata verirse o topluluktaki tüm future'lar aynı hatayla tamamlanır.
+ */
+final class MicroBatcher<I, O> {
+
+    interface BatchCall<I, O> {
+        // Sonuç listesi girdiyle aynı sıradadır; eksik kalemler null
+        List<O> call(List<I> items) throws Exception;
+    }
+
+    private final int maxBatchSize;
+    private final long windowMillis;
+    private final BatchCall<I, O> batchCall;
+    private final ScheduledExecutorService timer;
+    private final ExecutorService dispatcher;
+
+    // Virtual thread'lerin taşıyıcıya sabitlenmemesi için synchronized yerine
+    private final ReentrantLock lock = new ReentrantLock();
+    private List<Pending<I, O>> current = new ArrayList<>();
+    private ScheduledFuture<?> windowTask;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder items = new LongAdder();
+    private final LongAdder sizeFlushes = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+
+    MicroBatcher(String name, int maxBatchSize, long windowMillis, BatchCall<I, O> batchCall) {
+        this.maxBatchSize = Math.max(maxBatchSize, 1);
+        this.windowMillis = Math.max(windowMillis, 0);
+        this.batchCall = batchCall;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-window");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.dispatcher = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    CompletableFuture<O> submit(I item) {
+        Pending<I, O> pending = new Pending<>(item, new CompletableFuture<>());
+        List<Pending<I, O>> full = null;
+        lock.lock();
+        try {
+            current.add(pending);
+            if (current.size() >= maxBatchSize) {
+                full = takeCurrent();
+                sizeFlushes.increment();
+            } else if (current.size() == 1) {
+                windowTask = timer.schedule(this::flushWindow, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return pending.future;
+    }
+
+    // Boyuttan önce pencere dolduysa; iptal edilemeyen eski bir zamanlayıcı yeni topluluğu erken gönderebilir, zararsızdır
+    private void flushWindow() {
+        List<Pending<I, O>> batch;
+        lock.lock();
+        try {
+            batch = current.isEmpty() ? null : takeCurrent();
+        } finally {
+            lock.unlock();
+        }
+        if (batch != null) {
+            dispatch(batch);
+        }
+    }
+
+    private List<Pending<I, O>> takeCurrent() {
+        List<Pending<I, O>> batch = current;
+        current = new ArrayList<>();
+        if (windowTask != null) {
+            windowTask.cancel(false);
+            windowTask = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(List<Pending<I, O>> batch) {
+        batches.increment();
+        items.add(batch.size());
+        dispatcher.execute(() -> {
+            List<O> results;
+            try {
+                results = batchCall.call(batch.stream().map(Pending::item).toList());
+            } catch (Exception e) {
+                failedBatches.increment();
+                batch.forEach(pending -> pending.future.completeExceptionally(e));
+                return;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future.complete(results != null && i < results.size() ? results.get(i) : null);
+            }
+        });
+    }
+
+    Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long batchCount = batches.sum();
+        stats.put("maxBatchSize", maxBatchSize);
+        stats.put("windowMillis", windowMillis);
+        stats.put("batches", batchCount);
+        stats.put("items", items.sum());
+        stats.put("meanBatchSize", batchCount == 0 ? 0.0 : (double) items.sum() / batchCount);
+        stats.put("sizeFlushes", sizeFlushes.sum());
+        stats.put("failedBatches", failedBatches.sum());
+        return stats;
+    }
+
+    void shutdown() {
+        timer.shutdownNow();
+        dispatcher.shutdown();
+    }
+
+    private record Pending<I, O>(I item, CompletableFuture<O> future) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Mongo yalnızca replica set üzerinde çok dokümanlı transaction destekler; ilk kullanımda kontrol edilir.
+ * Tek sunuculu kurulumda template null döner ve çağıran taraf kendi geri alma adımlarını uygular.
+ */
+@Component
+public class MongoTransactions {
+
+    private final MongoTemplate mongoTemplate;
+    private volatile Optional<TransactionTemplate> transactionTemplate;
+    // synchronized içinde Mongo çağrısı sanal thread'i taşıyıcı thread'e sabitler
+    private final ReentrantLock transactionLock = new ReentrantLock();
+
+    @Autowired
+    public MongoTransactions(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public TransactionTemplate template() {
+        if (transactionTemplate == null) {
+            transactionLock.lock();
+            try {
+                if (transactionTemplate == null) {
+                    Document hello = mongoTemplate.executeCommand(new Document("hello", 1));
+                    transactionTemplate = hello.containsKey("setName")
+                            ? Optional.of(new TransactionTemplate(
+                                    new MongoTransactionManager(mongoTemplate.getMongoDatabaseFactory())))
+                            : Optional.empty();
+                }
+            } finally {
+                transactionLock.unlock();
+            }
+        }
+        return transactionTemplate.orElse(null);
+    }
+}
@@ -0,0 +1,259 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * OpenAI çağrıları için paylaşılan HTTP istemcisi. Bağlantılar ve TLS oturumları tek bir JDK
+ * HttpClient içinde yeniden kullanılır. Her çağrı eşzamanlılık sınırı, deneme başına okuma süresi
+ * ve toplam süre ile sınırlanır; 429/5xx ve ağ hataları jitter'lı üstel bekleme ile tekrarlanır.
+ * Art arda hatalarda devre açılır ve süre dolana kadar çağrılar dışarı çıkmadan reddedilir.
+ */
+@Component
+public class OpenAIHttpClient {
+    private static final Logger logger = LoggerFactory.getLogger(OpenAIHttpClient.class);
+
+    static final String CIRCUIT_CLOSED = "CLOSED";
+    static final String CIRCUIT_OPEN = "OPEN";
+    static final String CIRCUIT_HALF_OPEN = "HALF_OPEN";
+    // Devre kapalıyken verilen jeton; deneme hakkı tutmaz
+    private static final Object NO_PROBE = new Object();
+
+    private final HttpClient httpClient;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final long acquireTimeoutMillis;
+    private final long readTimeoutMillis;
+    private final long totalTimeoutMillis;
+    private final int maxAttempts;
+    private final long backoffBaseMillis;
+    private final long backoffMaxMillis;
+    private final int failureThreshold;
+    private final long openMillis;
+
+    // Devre durumu: art arda başarısız deneme sayısı ve açık kalacağı an
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openUntil = new AtomicLong();
+    // Yarı açık devrede deneme hakkını tutan çağrının jetonu; devre kapalıyken null
+    private final AtomicReference<Object> halfOpenProbe = new AtomicReference<>();
+
+    private final LatencyHistogram callLatency = new LatencyHistogram();
+    private final LatencyHistogram attemptLatency = new LatencyHistogram();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejectedBusy = new LongAdder();
+    private final LongAdder rejectedOpen = new LongAdder();
+
+    public OpenAIHttpClient(@Value("${openai.http.connect-timeout-millis:2000}") long connectTimeoutMillis,
+                            @Value("${openai.http.read-timeout-millis:15000}") long readTimeoutMillis,
+                            @Value("${openai.http.total-timeout-millis:30000}") long totalTimeoutMillis,
+                            @Value("${openai.http.max-concurrency:16}") int maxConcurrency,
+                            @Value("${openai.http.acquire-timeout-millis:1000}") long acquireTimeoutMillis,
+                            @Value("${openai.http.max-attempts:3}") int maxAttempts,
+                            @Value("${openai.http.backoff-base-millis:200}") long backoffBaseMillis,
+                            @Value("${openai.http.backoff-max-millis:5000}") long backoffMaxMillis,
+                            @Value("${openai.circuit.failure-threshold:5}") int failureThreshold,
+                            @Value("${openai.circuit.open-millis:30000}") long openMillis) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.totalTimeoutMillis = totalTimeoutMillis;
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.backoffBaseMillis = backoffBaseMillis;
+        this.backoffMaxMillis = backoffMaxMillis;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        logger.info("OpenAI HTTP client: connect {} ms, read {} ms, total {} ms, {} concurrent, {} attempts",
+                connectTimeoutMillis, readTimeoutMillis, totalTimeoutMillis, maxConcurrency, this.maxAttempts);
+    }
+
+    // JSON gövdeyi POST eder; son denemenin yanıtı durum kodundan bağımsız döner.
+    // Devre açıksa ya da eşzamanlılık sınırı doluysa RejectedExecutionException, süre dolarsa HttpTimeoutException.
+    public HttpResponse<String> postJson(URI uri, String bearerToken, String body) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(totalTimeoutMillis);
+        Object probe = allowRequest();
+        if (probe == null) {
+            rejectedOpen.increment();
+            throw new RejectedExecutionException("OpenAI devresi açık, istek gönderilmedi");
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                rejectedBusy.increment();
+                throw new RejectedExecutionException("OpenAI eşzamanlı istek sınırına ulaşıldı");
+            }
+            try {
+                return execute(uri, bearerToken, body, deadline);
+            } finally {
+                permits.release();
+                callLatency.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        } finally {
+            // Kesinti ya da beklenmeyen hata recordSuccess/recordFailure'a uğramadan çıkabilir;
+            // deneme hakkı hâlâ bu çağrıdaysa bırakılır, yoksa devre sonsuza dek açık kalır
+            halfOpenProbe.compareAndSet(probe, null);
+        }
+    }
+
+    private HttpResponse<String> execute(URI uri, String bearerToken, String body, long deadline)
+            throws IOException, InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                recordFailure();
+                throw new HttpTimeoutException("OpenAI isteği toplam süre sınırını aştı");
+            }
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .timeout(Duration.ofMillis(Math.min(readTimeoutMillis, remaining)))
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", "Bearer " + bearerToken)
+                    .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                    .build();
+
+            long attemptStart = System.nanoTime();
+            HttpResponse<String> response = null;
+            IOException error = null;
+            try {
+                response = httpClient.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                error = e;
+            } finally {
+                attemptLatency.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - attemptStart));
+            }
+
+            if (response != null && !isRetryable(response.statusCode())) {
+                recordSuccess();
+                return response;
+            }
+            recordFailure();
+            long backoff = backoffMillis(attempt, response);
+            boolean fits = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoff) < deadline;
+            if (attempt >= maxAttempts || !fits || isOpen()) {
+                if (response != null) {
+                    return response;
+                }
+                throw error;
+            }
+            retries.increment();
+            logger.debug("OpenAI attempt {} failed ({}), retrying in {} ms", attempt,
+                    response != null ? "HTTP " + response.statusCode() : error.toString(), backoff);
+            Thread.sleep(backoff);
+        }
+    }
+
+    private static boolean isRetryable(int status) {
+        return status == 429 || status >= 500;
+    }
+
+    // Tam jitter: [0, min(max, base * 2^(n-1))]; sunucu Retry-After verdiyse en az o kadar beklenir
+    private long backoffMillis(int attempt, HttpResponse<String> response) {
+        long ceiling = Math.min(backoffMaxMillis, backoffBaseMillis << Math.min(attempt - 1, 20));
+        long backoff = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        if (response != null) {
+            Long retryAfter = response.headers().firstValue("Retry-After").map(OpenAIHttpClient::parseSeconds).orElse(null);
+            if (retryAfter != null) {
+                backoff = Math.max(backoff, Math.min(retryAfter * 1000, backoffMaxMillis));
+            }
+        }
+        return backoff;
+    }
+
+    private static Long parseSeconds(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Açık devre süresi dolunca tek bir deneme isteğine izin verilir (yarı açık).
+    // Reddedilen çağrıya null, deneme hakkını alan çağrıya kendi jetonu döner
+    private Object allowRequest() {
+        long until = openUntil.get();
+        if (until == 0) {
+            return NO_PROBE;
+        }
+        if (System.currentTimeMillis() < until) {
+            return null;
+        }
+        Object probe = new Object();
+        return halfOpenProbe.compareAndSet(null, probe) ? probe : null;
+    }
+
+    private void releaseProbe() {
+        halfOpenProbe.set(null);
+    }
+
+    private boolean isOpen() {
+        long until = openUntil.get();
+        return until != 0 && System.currentTimeMillis() < until;
+    }
+
+    private void recordSuccess() {
+        consecutiveFailures.set(0);
+        if (openUntil.getAndSet(0) != 0) {
+            logger.info("OpenAI circuit closed");
+        }
+        releaseProbe();
+    }
+
+    private void recordFailure() {
+        failures.increment();
+        int failed = consecutiveFailures.incrementAndGet();
+        boolean probing = openUntil.get() != 0;
+        if (failureThreshold > 0 && (failed >= failureThreshold || probing)) {
+            openUntil.set(System.currentTimeMillis() + openMillis);
+            releaseProbe();
+            logger.warn("OpenAI circuit opened for {} ms after {} consecutive failures", openMillis, failed);
+        }
+    }
+
+    public String getCircuitState() {
+        long until = openUntil.get();
+        if (until == 0) {
+            return CIRCUIT_CLOSED;
+        }
+        return System.currentTimeMillis() < until ? CIRCUIT_OPEN : CIRCUIT_HALF_OPEN;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("circuit", getCircuitState());
+        stats.put("consecutiveFailures", consecutiveFailures.get());
+        stats.put("maxConcurrency", maxConcurrency);
+        stats.put("inFlight", maxConcurrency - permits.availablePermits());
+        stats.put("waiting", permits.getQueueLength());
+        stats.put("retries", retries.sum());
+        stats.put("failedAttempts", failures.sum());
+        stats.put("rejectedBusy", rejectedBusy.sum());
+        stats.put("rejectedOpen", rejectedOpen.sum());
+        stats.put("calls", callLatency.snapshot());
+        stats.put("attempts", attemptLatency.snapshot());
+        return stats;
+    }
+}
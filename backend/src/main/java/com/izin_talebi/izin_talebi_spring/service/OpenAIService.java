@@ -1,22 +1,58 @@
 package com.izin_talebi.izin_talebi_spring.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.http.*;
-import java.util.HashMap;
-import java.util.Map;
+
 import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpResponse;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class OpenAIService {
 
-    private static final String OPENAI_API_URL = "https://api.openai.com/v1/chat/completions";
     private static final String API_KEY_PATH = "src/main/java/com/izin_talebi/izin_talebi_spring/service/openai_api_key.txt";
+    static final String MODEL = "gpt-3.5-turbo";
+    static final int MAX_TOKENS = 100;
+    private static final String BATCH_INSTRUCTION =
+            "Aşağıdaki JSON dizisindeki her metni ayrı ayrı analiz et. Yalnızca aynı sırada, "
+                    + "[{\"id\": <id>, \"analysis\": \"<analiz>\"}] biçiminde bir JSON dizisi döndür.\n";
+
+    private final OpenAIHttpClient httpClient;
+    private final LlmResponseCache responseCache;
+    private final ObjectMapper objectMapper;
+    private final URI apiUrl;
+    // null ise her metin ayrı çağrıyla gönderilir
+    private final MicroBatcher<String, BatchAnswer> batcher;
     private String openaiApiKey;
 
-    public OpenAIService() {
+    @Autowired
+    public OpenAIService(OpenAIHttpClient httpClient, LlmResponseCache responseCache, ObjectMapper objectMapper,
+                         @Value("${openai.api-url:https://api.openai.com/v1/chat/completions}") String apiUrl,
+                         @Value("${openai.batch.enabled:false}") boolean batchEnabled,
+                         @Value("${openai.batch.max-size:8}") int batchMaxSize,
+                         @Value("${openai.batch.window-millis:50}") long batchWindowMillis) {
+        this.httpClient = httpClient;
+        this.responseCache = responseCache;
+        this.objectMapper = objectMapper;
+        this.apiUrl = URI.create(apiUrl);
+        this.batcher = batchEnabled
+                ? new MicroBatcher<>("llm-batch", batchMaxSize, batchWindowMillis, this::completeBatchAnswers)
+                : null;
         try {
             openaiApiKey = Files.readString(Paths.get(API_KEY_PATH)).trim();
         } catch (IOException e) {
@@ -24,40 +60,140 @@ public class OpenAIService {
         }
     }
 
+    // Hata durumunda kullanıcıya gösterilecek metni döner
     public String analyzeText(String text) {
-        // Basit bir örnek: OpenAI Chat API'ye POST isteği atar
-        RestTemplate restTemplate = new RestTemplate();
+        try {
+            return analyze(text);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "OpenAI API hatası: istek kesildi";
+        } catch (Exception e) {
+            return "OpenAI API hatası: " + e.getMessage();
+        }
+    }
+
+    // Aynı (normalize edilmiş) metin için önbellekteki yanıt döner; sadece başarılı yanıtlar saklanır.
+    // Hatalar fırlatılır, böylece arka plan işleri tekrar deneyebilir.
+    public String analyze(String text) throws Exception {
+        String cacheKey = LlmResponseCache.key(text, MODEL, MAX_TOKENS);
+        Optional<String> cached = responseCache.get(cacheKey);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        long start = System.nanoTime();
+        BatchAnswer answer = batcher != null ? completeBatched(text) : new BatchAnswer(complete(text, MAX_TOKENS), false);
+        if (answer.text() == null) {
+            throw new IOException("OpenAI'dan yanıt alınamadı.");
+        }
+        // Başka metinlerle aynı istemde üretilen yanıt o metinlerden etkilenmiş olabilir (istem enjeksiyonu);
+        // önbelleğe yazılırsa aynı metni gönderen herkese dağıtılırdı
+        if (!answer.shared()) {
+            responseCache.put(cacheKey, answer.text(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        return answer.text();
+    }
+
+    // Yanıt ve başka metinlerle aynı istemde üretilip üretilmediği
+    record BatchAnswer(String text, boolean shared) {
+    }
+
+    // Toplu yanıtta bu metnin karşılığı yoksa tek başına tekrar gönderilir
+    private BatchAnswer completeBatched(String text) throws Exception {
+        BatchAnswer answer;
+        try {
+            answer = batcher.submit(text).get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+        return answer != null ? answer : new BatchAnswer(complete(text, MAX_TOKENS), false);
+    }
+
+    private List<BatchAnswer> completeBatchAnswers(List<String> texts) throws Exception {
+        boolean shared = texts.size() > 1;
+        List<BatchAnswer> answers = new ArrayList<>(texts.size());
+        for (String answer : completeBatch(texts)) {
+            answers.add(answer == null ? null : new BatchAnswer(answer, shared));
+        }
+        return answers;
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setBearerAuth(openaiApiKey);
+    // Birden fazla metin tek istemde, numaralı JSON dizisi olarak gönderilir; yanıt id ile eşlenir
+    List<String> completeBatch(List<String> texts) throws Exception {
+        if (texts.size() == 1) {
+            return List.of(complete(texts.get(0), MAX_TOKENS));
+        }
+        List<Map<String, Object>> items = new ArrayList<>(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", i);
+            item.put("text", texts.get(i));
+            items.add(item);
+        }
+        String content = complete(BATCH_INSTRUCTION + objectMapper.writeValueAsString(items), MAX_TOKENS * texts.size());
+        return parseBatch(content, texts.size());
+    }
+
+    // Model diziyi açıklama metniyle sarabilir; ilk '[' ile son ']' arası okunur, okunamayan kalemler null kalır
+    List<String> parseBatch(String content, int size) {
+        List<String> answers = new ArrayList<>(Collections.nCopies(size, (String) null));
+        if (content == null) {
+            return answers;
+        }
+        int start = content.indexOf('[');
+        int end = content.lastIndexOf(']');
+        if (start < 0 || end <= start) {
+            return answers;
+        }
+        try {
+            List<Map<String, Object>> items = objectMapper.readValue(content.substring(start, end + 1),
+                    new TypeReference<List<Map<String, Object>>>() {});
+            for (Map<String, Object> item : items) {
+                if (item.get("id") instanceof Number id && id.intValue() >= 0 && id.intValue() < size
+                        && item.get("analysis") instanceof String analysis) {
+                    answers.set(id.intValue(), analysis);
+                }
+            }
+        } catch (IOException e) {
+            // Hepsi tek tek tekrar gönderilir
+        }
+        return answers;
+    }
 
+    public Map<String, Object> batchStats() {
+        return batcher != null ? batcher.stats() : Map.of("enabled", false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (batcher != null) {
+            batcher.shutdown();
+        }
+    }
+
+    // Basit bir örnek: OpenAI Chat API'ye POST isteği atar; yanıtta seçenek yoksa null
+    private String complete(String text, int maxTokens) throws Exception {
         Map<String, Object> message = new HashMap<>();
         message.put("role", "user");
         message.put("content", text);
 
         Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("model", "gpt-3.5-turbo");
+        requestBody.put("model", MODEL);
         requestBody.put("messages", new Object[]{message});
-        requestBody.put("max_tokens", 100);
-
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
+        requestBody.put("max_tokens", maxTokens);
 
-        try {
-            ResponseEntity<Map> response = restTemplate.postForEntity(OPENAI_API_URL, entity, Map.class);
-            // OpenAI yanıtını işleyin (örnek olarak ilk cevabı döndürür)
-            Map<String, Object> responseBody = response.getBody();
-            if (responseBody != null && responseBody.containsKey("choices")) {
-                Object[] choices = ((java.util.List<Object>) responseBody.get("choices")).toArray();
-                if (choices.length > 0) {
-                    Map<String, Object> choice = (Map<String, Object>) choices[0];
-                    Map<String, Object> messageResp = (Map<String, Object>) choice.get("message");
-                    return (String) messageResp.get("content");
-                }
-            }
-            return "OpenAI'dan yanıt alınamadı.";
-        } catch (Exception e) {
-            return "OpenAI API hatası: " + e.getMessage();
+        HttpResponse<String> response =
+                httpClient.postJson(apiUrl, openaiApiKey, objectMapper.writeValueAsString(requestBody));
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("HTTP " + response.statusCode());
+        }
+        // OpenAI yanıtını işleyin (örnek olarak ilk cevabı döndürür)
+        Map<String, Object> responseBody = objectMapper.readValue(response.body(), Map.class);
+        if (responseBody != null && responseBody.get("choices") instanceof List<?> choices && !choices.isEmpty()) {
+            Map<String, Object> choice = (Map<String, Object>) choices.get(0);
+            Map<String, Object> messageResp = (Map<String, Object>) choice.get("message");
+            return (String) messageResp.get("content");
         }
+        return null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,80 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import com.izin_talebi.izin_talebi_spring.dto.UserSummary;
+import com.izin_talebi.izin_talebi_spring.model.IzinTalebi;
+import com.izin_talebi.izin_talebi_spring.model.LeaveRequest;
+import com.izin_talebi.izin_talebi_spring.model.User;
+import com.izin_talebi.izin_talebi_spring.repository.ReactiveIzinTalebiRepository;
+import com.izin_talebi.izin_talebi_spring.repository.ReactiveLeaveRequestRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Listeleme ve kullanıcı sorgularının reaktif Mongo sürücüsü üzerindeki karşılıkları.
+ * Sonuçlar istemcinin talebi kadar cursor'dan çekilir; bekleme sırasında hiçbir thread bloklanmaz.
+ * Filtreler senkron servislerle aynıdır, böylece iki uç aynı kayıtları döner.
+ */
+@Service
+public class ReactiveLeaveQueryService {
+
+    private static final int CURSOR_BATCH_SIZE = 500;
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final ReactiveIzinTalebiRepository izinTalebiRepository;
+    private final ReactiveLeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    public ReactiveLeaveQueryService(ReactiveMongoTemplate reactiveMongoTemplate,
+                                     ReactiveIzinTalebiRepository izinTalebiRepository,
+                                     ReactiveLeaveRequestRepository leaveRequestRepository) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.izinTalebiRepository = izinTalebiRepository;
+        this.leaveRequestRepository = leaveRequestRepository;
+    }
+
+    // calisanId null ise tüm talepler; filtre yoksa repository, varsa aynı kriterlerle template kullanılır
+    public Flux<IzinTalebi> getIzinTalepleri(Integer calisanId, String status, LocalDate from, LocalDate to) {
+        if (status == null && from == null && to == null) {
+            return calisanId == null
+                    ? izinTalebiRepository.findAll(Sort.by(Sort.Direction.ASC, "_id"))
+                    : izinTalebiRepository.findByCalisanId(calisanId);
+        }
+        return reactiveMongoTemplate.find(
+                streamingQuery(IzinTalebiService.filters(calisanId, status, from, to)), IzinTalebi.class);
+    }
+
+    // owner null ise tüm talepler
+    public Flux<LeaveRequest> getLeaveRequests(User owner, String status, LocalDate from, LocalDate to) {
+        if (status == null && from == null && to == null) {
+            return owner == null
+                    ? leaveRequestRepository.findAll(Sort.by(Sort.Direction.ASC, "_id"))
+                    : leaveRequestRepository.findByUserUserId(owner.getId());
+        }
+        return reactiveMongoTemplate.find(
+                streamingQuery(LeaveRequestService.filters(owner, status, from, to)), LeaveRequest.class);
+    }
+
+    // Senkron uçla aynı projeksiyon: yalnızca özet alanları okunur
+    public Mono<UserSummary> findSummaryByCalisanId(Integer calisanId) {
+        return reactiveMongoTemplate.findOne(UserSummary.byCalisanId(calisanId), User.class).map(UserSummary::of);
+    }
+
+    private Query streamingQuery(List<Criteria> filters) {
+        Query query = new Query();
+        if (!filters.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(filters));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "_id"));
+        query.cursorBatchSize(CURSOR_BATCH_SIZE);
+        return query;
+    }
+}
@@ -0,0 +1,249 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import com.izin_talebi.izin_talebi_spring.model.DateRange;
+import com.izin_talebi.izin_talebi_spring.model.IzinTalebi;
+import com.izin_talebi.izin_talebi_spring.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Ekip (pozisyon) başına günlük izinli kişi sayısını tutar ve tanımlı üst sınırı uygular.
+ * Onaylanmış talepler sayılır; kontrol ve ekleme ekip bazında atomiktir. Açılışta izinTalepleri
+ * koleksiyonundan yeniden kurulur; kurulum bitene kadar kapasite sorguları bekler. Yalnızca sınırı
+ * tanımlı ekipler için sayaç tutulur.
+ */
+@Service
+public class TeamCapacityService {
+    private static final Logger logger = LoggerFactory.getLogger(TeamCapacityService.class);
+
+    // Gün indeksi DateRange'in kabul ettiği yıl penceresinin tamamını kapsar; hiçbir aralık kırpılmaz
+    private static final LocalDate EPOCH = LocalDate.of(DateRange.MIN_YEAR, 1, 1);
+    private static final int DAYS = (int) ChronoUnit.DAYS.between(EPOCH, LocalDate.of(DateRange.MAX_YEAR + 1, 1, 1));
+    private static final int CURSOR_BATCH_SIZE = 500;
+    private static final long READY_TIMEOUT_SECONDS = 30;
+
+    private final MongoTemplate mongoTemplate;
+    private final UserCache userCache;
+    private final int defaultLimit;
+    private final Map<String, Integer> limits;
+    private volatile Map<String, DayCapacityTree> teams = new ConcurrentHashMap<>();
+    // Ayırma ve sorgular okuma kilidiyle, yeniden kurulum yazma kilidiyle çalışır; kurulum sırasında
+    // yapılan bir ayırma ne silinir ne de iki kez sayılır
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    private final CountDownLatch ready = new CountDownLatch(1);
+
+    @Autowired
+    public TeamCapacityService(MongoTemplate mongoTemplate, UserCache userCache,
+                               @Value("${izin.capacity.default-limit:0}") int defaultLimit,
+                               @Value("${izin.capacity.limits:}") String limits) {
+        this.mongoTemplate = mongoTemplate;
+        this.userCache = userCache;
+        this.defaultLimit = defaultLimit;
+        this.limits = parseLimits(limits);
+    }
+
+    // Onaylanan bir talebin kapladığı kapasite; onay geri alınırsa serbest bırakılır
+    public final class Reservation {
+        private final String team;
+        private final DateRange range;
+        private boolean released;
+
+        private Reservation(String team, DateRange range) {
+            this.team = team;
+            this.range = range;
+        }
+
+        public void release() {
+            if (!released) {
+                released = true;
+                add(team, range, -1);
+            }
+        }
+    }
+
+    // 0 ya da negatif sınır kapasite kontrolü yok demektir
+    public int limitOf(String team) {
+        return limits.getOrDefault(team, defaultLimit);
+    }
+
+    public String teamOf(Integer calisanId) {
+        return userCache.findByCalisanId(calisanId, () -> Optional.ofNullable(
+                        mongoTemplate.findOne(new Query(where("calisanId").is(calisanId)), User.class)))
+                .map(User::getPozisyon)
+                .orElse(null);
+    }
+
+    // Aralıktaki en yoğun gündeki izinli sayısı; sınırı olmayan ekipler sayılmaz
+    public int peak(String team, DateRange range) {
+        if (team == null || limitOf(team) <= 0) {
+            return 0;
+        }
+        int[] days = indexes(range);
+        lockShared();
+        try {
+            DayCapacityTree tree = teams.get(team);
+            if (tree == null) {
+                return 0;
+            }
+            synchronized (tree) {
+                return tree.max(days[0], days[1]);
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    // Talep oluşturulurken erken kontrol; asıl ayırma onayda yapılır
+    public boolean hasRoom(String team, DateRange range) {
+        int limit = limitOf(team);
+        return team == null || limit <= 0 || peak(team, range) < limit;
+    }
+
+    // Sınır aşılmayacaksa aralığı ayırır; aşılacaksa boş döner
+    public Optional<Reservation> tryReserve(String team, DateRange range) {
+        int limit = team == null ? 0 : limitOf(team);
+        if (limit <= 0) {
+            return Optional.of(new Reservation(null, range));
+        }
+        int[] days = indexes(range);
+        lockShared();
+        try {
+            DayCapacityTree tree = tree(teams, team);
+            synchronized (tree) {
+                if (tree.max(days[0], days[1]) >= limit) {
+                    return Optional.empty();
+                }
+                tree.add(days[0], days[1], 1);
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+        return Optional.of(new Reservation(team, range));
+    }
+
+    // Yeni tablo ayrı kurulur ve tek atamayla devreye girer; yazma kilidi süresince ayırmalar bekler
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        rebuildLock.writeLock().lock();
+        try {
+            Map<Integer, String> teamByCalisanId = new HashMap<>();
+            Query users = new Query();
+            users.fields().include("calisanId", "pozisyon");
+            users.cursorBatchSize(CURSOR_BATCH_SIZE);
+            try (Stream<User> stream = mongoTemplate.stream(users, User.class)) {
+                stream.filter(u -> u.getCalisanId() != null && u.getPozisyon() != null)
+                        .forEach(u -> teamByCalisanId.put(u.getCalisanId(), u.getPozisyon()));
+            }
+
+            Map<String, DayCapacityTree> rebuilt = new ConcurrentHashMap<>();
+            int loaded = 0;
+            Query approved = new Query(where("requestStatus").is(IzinTalebiService.STATUS_APPROVED));
+            approved.fields().include("calisanId", "requestedDates");
+            approved.cursorBatchSize(CURSOR_BATCH_SIZE);
+            try (Stream<IzinTalebi> stream = mongoTemplate.stream(approved, IzinTalebi.class)) {
+                for (IzinTalebi iz : (Iterable<IzinTalebi>) stream::iterator) {
+                    String team = teamByCalisanId.get(iz.getCalisanId());
+                    if (team == null || limitOf(team) <= 0) {
+                        continue;
+                    }
+                    int[] days;
+                    try {
+                        days = indexes(DateRange.parse(iz.getRequestedDates()));
+                    } catch (IllegalArgumentException e) {
+                        logger.debug("Skipping izin talebi {} with unparsable dates", iz.getId());
+                        continue;
+                    }
+                    tree(rebuilt, team).add(days[0], days[1], 1);
+                    loaded++;
+                }
+            }
+            teams = rebuilt;
+            logger.info("Team capacity rebuilt from {} approved requests for {} teams in {} ms",
+                    loaded, rebuilt.size(), System.currentTimeMillis() - start);
+        } finally {
+            rebuildLock.writeLock().unlock();
+            ready.countDown();
+        }
+    }
+
+    // İlk kurulum bitmeden boş tabloya karşı kontrol yapılmaz
+    private void lockShared() {
+        try {
+            if (!ready.await(READY_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Ekip kapasitesi henüz yüklenmedi, lütfen tekrar deneyin");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ekip kapasitesi beklenirken kesildi", e);
+        }
+        rebuildLock.readLock().lock();
+    }
+
+    private void add(String team, DateRange range, int delta) {
+        if (team == null || limitOf(team) <= 0) {
+            return;
+        }
+        int[] days = indexes(range);
+        lockShared();
+        try {
+            DayCapacityTree tree = tree(teams, team);
+            synchronized (tree) {
+                tree.add(days[0], days[1], delta);
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    private static DayCapacityTree tree(Map<String, DayCapacityTree> teams, String team) {
+        return teams.computeIfAbsent(team, t -> new DayCapacityTree(DAYS));
+    }
+
+    // Takvim dışındaki aralık kırpılmaz, reddedilir; kırpılsaydı sınır o günlerde sessizce uygulanmazdı
+    private static int[] indexes(DateRange range) {
+        long from = range.start().toEpochDay() - EPOCH.toEpochDay();
+        long to = range.end().toEpochDay() - EPOCH.toEpochDay();
+        if (from < 0 || to >= DAYS) {
+            throw new IllegalArgumentException("İzin tarihleri kapasite takviminin dışında: " + range);
+        }
+        return new int[]{(int) from, (int) to};
+    }
+
+    // Biçim: Pozisyon:sınır,Pozisyon:sınır
+    private static Map<String, Integer> parseLimits(String value) {
+        Map<String, Integer> limits = new HashMap<>();
+        if (value == null || value.isBlank()) {
+            return limits;
+        }
+        for (String entry : value.split(",")) {
+            int colon = entry.lastIndexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Geçersiz kapasite tanımı: " + entry);
+            }
+            limits.put(entry.substring(0, colon).trim(), Integer.parseInt(entry.substring(colon + 1).trim()));
+        }
+        return limits;
+    }
+}
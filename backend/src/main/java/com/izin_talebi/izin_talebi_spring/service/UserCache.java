@@ -0,0 +1,174 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import com.izin_talebi.izin_talebi_spring.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * E-posta ve çalışan ID ile erişilen, boyut ve TTL sınırlı kullanıcı önbelleği.
+ * Kullanıcıyı yazan her kod yolu {@link #evict(User)} ya da {@link #invalidateAll()} çağırmalıdır.
+ * Çağıranlar her seferinde kendi kopyalarını alır; dönen nesneyi değiştirmek önbelleği etkilemez.
+ */
+@Component
+public class UserCache {
+
+    private final int maxSize;
+    private final long ttlMillis;
+
+    // E-postaya göre LRU sıralı ana tablo, çalışan ID'den e-postaya ikincil indeks
+    private final LinkedHashMap<String, Entry> byEmail;
+    private final Map<Integer, String> emailByCalisanId = new HashMap<>();
+
+    // Her evict/invalidateAll'da artar; yükleme sürerken silinen kullanıcı eski haliyle geri yazılmaz
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public UserCache(@Value("${user-cache.max-size:5000}") int maxSize,
+                     @Value("${user-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.byEmail = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > UserCache.this.maxSize) {
+                    unindex(eldest.getValue().user);
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Optional<User> findByEmail(String email, Supplier<Optional<User>> loader) {
+        if (email == null) {
+            return loader.get();
+        }
+        User cached = lookup(email);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return load(loader);
+    }
+
+    public Optional<User> findByCalisanId(Integer calisanId, Supplier<Optional<User>> loader) {
+        if (calisanId == null) {
+            return loader.get();
+        }
+        User cached;
+        synchronized (this) {
+            String email = emailByCalisanId.get(calisanId);
+            cached = email != null ? lookup(email) : countMiss();
+        }
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return load(loader);
+    }
+
+    public synchronized void evict(User user) {
+        if (user == null) {
+            return;
+        }
+        generation++;
+        if (user.getEmail() != null) {
+            Entry removed = byEmail.remove(user.getEmail());
+            if (removed != null) {
+                unindex(removed.user);
+            }
+        }
+        if (user.getCalisanId() != null) {
+            String email = emailByCalisanId.remove(user.getCalisanId());
+            if (email != null) {
+                byEmail.remove(email);
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        byEmail.clear();
+        emailByCalisanId.clear();
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long lookups = hits + misses;
+        stats.put("size", byEmail.size());
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRate", lookups == 0 ? 0.0 : (double) hits / lookups);
+        stats.put("evictions", evictions);
+        return stats;
+    }
+
+    private synchronized User lookup(String email) {
+        Entry entry = byEmail.get(email);
+        if (entry == null) {
+            return countMiss();
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            byEmail.remove(email);
+            unindex(entry.user);
+            evictions++;
+            return countMiss();
+        }
+        hits++;
+        return entry.user.toBuilder().build();
+    }
+
+    private User countMiss() {
+        misses++;
+        return null;
+    }
+
+    // Veritabanı çağrısı kilit dışında yapılır; arada bir evict olduysa sonuç önbelleğe yazılmaz
+    private Optional<User> load(Supplier<Optional<User>> loader) {
+        long startedAt;
+        synchronized (this) {
+            startedAt = generation;
+        }
+        Optional<User> loaded = loader.get();
+        loaded.ifPresent(user -> put(user, startedAt));
+        return loaded;
+    }
+
+    private synchronized void put(User user, long startedAt) {
+        if (user.getEmail() == null || generation != startedAt) {
+            return;
+        }
+        Entry previous = byEmail.remove(user.getEmail());
+        if (previous != null) {
+            unindex(previous.user);
+        }
+        byEmail.put(user.getEmail(), new Entry(user.toBuilder().build(), System.currentTimeMillis() + ttlMillis));
+        if (user.getCalisanId() != null) {
+            emailByCalisanId.put(user.getCalisanId(), user.getEmail());
+        }
+    }
+
+    private void unindex(User user) {
+        if (user.getCalisanId() != null) {
+            emailByCalisanId.remove(user.getCalisanId(), user.getEmail());
+        }
+    }
+
+    private static final class Entry {
+        private final User user;
+        private final long expiresAt;
+
+        private Entry(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
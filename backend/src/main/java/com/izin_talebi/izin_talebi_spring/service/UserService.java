@@ -1,9 +1,11 @@
 package com.izin_talebi.izin_talebi_spring.service;
 
+import com.izin_talebi.izin_talebi_spring.dto.UserSummary;
 import com.izin_talebi.izin_talebi_spring.model.User;
 import com.izin_talebi.izin_talebi_spring.repository.UserRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -14,25 +16,43 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserCache userCache;
+    private final LeaveRequestService leaveRequestService;
+    private final MongoTemplate mongoTemplate;
 
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, UserCache userCache,
+                       LeaveRequestService leaveRequestService, MongoTemplate mongoTemplate) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userCache = userCache;
+        this.leaveRequestService = leaveRequestService;
+        this.mongoTemplate = mongoTemplate;
     }
 
     public Optional<User> findByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return userCache.findByEmail(email, () -> userRepository.findByEmail(email));
     }
 
     public Optional<User> findByCalisanId(Integer calisanId) {
-        return userRepository.findByCalisanId(calisanId);
+        return userCache.findByCalisanId(calisanId, () -> userRepository.findByCalisanId(calisanId));
+    }
+
+    // Özet ucu için projeksiyonlu okuma; kısmi kullanıcı önbelleğe yazılmaz
+    public Optional<UserSummary> findSummaryByCalisanId(Integer calisanId) {
+        return Optional.ofNullable(mongoTemplate.findOne(UserSummary.byCalisanId(calisanId), User.class))
+                .map(UserSummary::of);
     }
 
     @Transactional
     public User registerUser(User user) {
-        // Şifre hash'leme devre dışı bırakıldı
-        return userRepository.save(user);
+        // Şifre bcrypt ile, ayrı thread havuzunda hash'lenir
+        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        User saved = userRepository.save(user);
+        userCache.evict(saved);
+        // Mevcut bir kullanıcının üzerine kayıt yapıldıysa izin taleplerindeki özetler de tazelenir
+        leaveRequestService.syncUserSnapshot(saved);
+        return saved;
     }
 
     public Optional<User> findById(String id) {
@@ -42,4 +62,4 @@ public class UserService {
     public Iterable<User> findAll() {
         return userRepository.findAll();
     }
-}
\ No newline at end of file
+}
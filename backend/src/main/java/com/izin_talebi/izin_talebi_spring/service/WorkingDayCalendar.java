@@ -0,0 +1,183 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import com.izin_talebi.izin_talebi_spring.model.DateRange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hafta sonu, resmi tatil ve yarım günleri hesaba katan iş günü takvimi. Her lokasyon ve yıl için
+ * yarım gün birimli önek toplam dizisi bir kez hesaplanır; aralık sorgusu yıl başına iki dizi okumasıdır.
+ * İzin onayı, talep doğrulaması ve raporlar gün sayısını buradan alır.
+ */
+@Component
+public class WorkingDayCalendar {
+    private static final Logger logger = LoggerFactory.getLogger(WorkingDayCalendar.class);
+
+    // Yarım gün birimleri
+    private static final byte FULL_DAY = 2;
+    private static final byte HALF_DAY = 1;
+    private static final byte OFF = 0;
+
+    // Sabit tarihli resmi tatiller
+    private static final Set<MonthDay> FIXED_HOLIDAYS = Set.of(
+            MonthDay.of(1, 1),   // Yılbaşı
+            MonthDay.of(4, 23),  // Ulusal Egemenlik ve Çocuk Bayramı
+            MonthDay.of(5, 1),   // Emek ve Dayanışma Günü
+            MonthDay.of(5, 19),  // Atatürk'ü Anma, Gençlik ve Spor Bayramı
+            MonthDay.of(7, 15),  // Demokrasi ve Milli Birlik Günü
+            MonthDay.of(8, 30),  // Zafer Bayramı
+            MonthDay.of(10, 29)  // Cumhuriyet Bayramı
+    );
+    // Cumhuriyet Bayramı arifesi öğleden sonra tatil
+    private static final Set<MonthDay> FIXED_HALF_DAYS = Set.of(MonthDay.of(10, 28));
+
+    // Dini bayramlar: arife (yarım gün) ve bayram günleri; hicri takvime göre her yıl kayar
+    private static final Map<Integer, List<String>> RELIGIOUS_HOLIDAYS = Map.of(
+            2023, List.of("2023-04-20/H", "2023-04-21", "2023-04-22", "2023-04-23",
+                    "2023-06-27/H", "2023-06-28", "2023-06-29", "2023-06-30", "2023-07-01"),
+            2024, List.of("2024-04-09/H", "2024-04-10", "2024-04-11", "2024-04-12",
+                    "2024-06-15/H", "2024-06-16", "2024-06-17", "2024-06-18", "2024-06-19"),
+            2025, List.of("2025-03-29/H", "2025-03-30", "2025-03-31", "2025-04-01",
+                    "2025-06-05/H", "2025-06-06", "2025-06-07", "2025-06-08", "2025-06-09"),
+            2026, List.of("2026-03-19/H", "2026-03-20", "2026-03-21", "2026-03-22",
+                    "2026-05-26/H", "2026-05-27", "2026-05-28", "2026-05-29", "2026-05-30"),
+            2027, List.of("2027-03-08/H", "2027-03-09", "2027-03-10", "2027-03-11",
+                    "2027-05-15/H", "2027-05-16", "2027-05-17", "2027-05-18", "2027-05-19")
+    );
+
+    private final String defaultSite;
+    // Lokasyon -> ek tatil günleri (tüm lokasyonlar için geçerli olanlar dahil)
+    private final Map<String, Map<LocalDate, Byte>> siteOverrides = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, int[]>> prefixes = new ConcurrentHashMap<>();
+    private final Set<Integer> warnedYears = ConcurrentHashMap.newKeySet();
+
+    public WorkingDayCalendar(@Value("${izin.calendar.default-site:TR}") String defaultSite,
+                              @Value("${izin.calendar.extra-holidays:}") String extraHolidays,
+                              @Value("${izin.calendar.site-holidays:}") String siteHolidays) {
+        this.defaultSite = defaultSite;
+        Map<LocalDate, Byte> common = parseDays(extraHolidays);
+        siteOverrides.put(defaultSite, common);
+        // Biçim: SITE:yyyy-MM-dd[/H],SITE:yyyy-MM-dd
+        for (String entry : splitList(siteHolidays)) {
+            int colon = entry.indexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Geçersiz lokasyon tatili: " + entry);
+            }
+            String site = entry.substring(0, colon).trim();
+            siteOverrides.computeIfAbsent(site, s -> new HashMap<>(common))
+                    .putAll(parseDays(entry.substring(colon + 1)));
+        }
+        int year = LocalDate.now().getYear();
+        for (String site : siteOverrides.keySet()) {
+            for (int y = year - 1; y <= year + 1; y++) {
+                prefix(site, y);
+            }
+        }
+    }
+
+    public String getDefaultSite() {
+        return defaultSite;
+    }
+
+    // Aralıktaki çalışma süresi, yarım gün birimiyle
+    public int workingHalfDays(String site, DateRange range) {
+        String key = site == null || !siteOverrides.containsKey(site) ? defaultSite : site;
+        LocalDate start = range.start();
+        LocalDate end = range.end();
+        if (start.getYear() == end.getYear()) {
+            return between(prefix(key, start.getYear()), start.getDayOfYear(), end.getDayOfYear());
+        }
+        int[] first = prefix(key, start.getYear());
+        int total = between(first, start.getDayOfYear(), first.length - 1);
+        for (int y = start.getYear() + 1; y < end.getYear(); y++) {
+            int[] full = prefix(key, y);
+            total += full[full.length - 1];
+        }
+        return total + between(prefix(key, end.getYear()), 1, end.getDayOfYear());
+    }
+
+    public double workingDays(String site, DateRange range) {
+        return workingHalfDays(site, range) / 2.0;
+    }
+
+    // Bakiyeden düşülecek gün sayısı; yarım günler yukarı yuvarlanır
+    public int chargeableDays(String site, DateRange range) {
+        return (workingHalfDays(site, range) + 1) / 2;
+    }
+
+    public int chargeableDays(DateRange range) {
+        return chargeableDays(defaultSite, range);
+    }
+
+    public boolean isWorkingDay(String site, LocalDate date) {
+        return workingHalfDays(site, new DateRange(date, date)) > 0;
+    }
+
+    private static int between(int[] prefix, int fromDayOfYear, int toDayOfYear) {
+        return prefix[toDayOfYear] - prefix[fromDayOfYear - 1];
+    }
+
+    private int[] prefix(String site, int year) {
+        return prefixes.computeIfAbsent(site, s -> new ConcurrentHashMap<>())
+                .computeIfAbsent(year, y -> build(site, y));
+    }
+
+    private int[] build(String site, int year) {
+        if (!RELIGIOUS_HOLIDAYS.containsKey(year) && warnedYears.add(year)) {
+            logger.warn("No religious holiday table for {}, only fixed holidays are applied", year);
+        }
+        Map<LocalDate, Byte> overrides = new HashMap<>();
+        for (String day : RELIGIOUS_HOLIDAYS.getOrDefault(year, List.of())) {
+            overrides.putAll(parseDays(day));
+        }
+        overrides.putAll(siteOverrides.getOrDefault(site, Map.of()));
+
+        LocalDate day = LocalDate.of(year, 1, 1);
+        int[] prefix = new int[day.lengthOfYear() + 1];
+        for (int i = 1; i < prefix.length; i++, day = day.plusDays(1)) {
+            prefix[i] = prefix[i - 1] + units(day, overrides);
+        }
+        return prefix;
+    }
+
+    private static byte units(LocalDate day, Map<LocalDate, Byte> overrides) {
+        if (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            return OFF;
+        }
+        MonthDay monthDay = MonthDay.from(day);
+        if (FIXED_HOLIDAYS.contains(monthDay)) {
+            return OFF;
+        }
+        Byte override = overrides.get(day);
+        if (override != null) {
+            return override;
+        }
+        return FIXED_HALF_DAYS.contains(monthDay) ? HALF_DAY : FULL_DAY;
+    }
+
+    // "yyyy-MM-dd" tam gün tatil, "yyyy-MM-dd/H" yarım gün
+    private static Map<LocalDate, Byte> parseDays(String list) {
+        Map<LocalDate, Byte> days = new HashMap<>();
+        for (String entry : splitList(list)) {
+            boolean half = entry.endsWith("/H");
+            LocalDate date = LocalDate.parse(half ? entry.substring(0, entry.length() - 2) : entry);
+            days.put(date, half ? HALF_DAY : OFF);
+        }
+        return days;
+    }
+
+    private static List<String> splitList(String list) {
+        if (list == null || list.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(list.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+    }
+}
@@ -0,0 +1,193 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * .xlsx dosyasının ilk sayfasını StAX ile satır satır okur; sayfa belleğe alınmaz.
+ * Yalnızca paylaşılan metin tablosu bellekte tutulur. Hücre değerleri ham metin olarak verilir,
+ * tarih ve sayılar Excel'in sayısal gösterimindedir.
+ */
+class XlsxSheetReader {
+
+    private static final String RELATIONSHIP_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    @FunctionalInterface
+    interface RowHandler {
+        // rowNumber Excel'deki 1 tabanlı satır numarasıdır; boş hücreler null
+        void row(int rowNumber, List<String> cells);
+    }
+
+    private final XMLInputFactory factory;
+
+    XlsxSheetReader() {
+        factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    void read(Path file, RowHandler handler) throws IOException {
+        try (ZipFile zip = new ZipFile(file.toFile())) {
+            List<String> sharedStrings = readSharedStrings(zip);
+            ZipEntry sheet = zip.getEntry(firstSheetPath(zip));
+            if (sheet == null) {
+                throw new IOException("Çalışma sayfası bulunamadı: " + file);
+            }
+            try (InputStream in = zip.getInputStream(sheet)) {
+                readRows(in, sharedStrings, handler);
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Excel dosyası okunamadı: " + file, e);
+        }
+    }
+
+    private void readRows(InputStream in, List<String> sharedStrings, RowHandler handler) throws XMLStreamException {
+        XMLStreamReader xml = factory.createXMLStreamReader(in);
+        try {
+            List<String> cells = null;
+            int rowNumber = 0;
+            int column = 0;
+            String type = null;
+            StringBuilder value = null;
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (xml.getLocalName()) {
+                        case "row" -> {
+                            cells = new ArrayList<>();
+                            String r = xml.getAttributeValue(null, "r");
+                            rowNumber = r != null ? Integer.parseInt(r) : rowNumber + 1;
+                        }
+                        case "c" -> {
+                            String ref = xml.getAttributeValue(null, "r");
+                            column = ref != null ? columnIndex(ref) : cells.size();
+                            type = xml.getAttributeValue(null, "t");
+                            value = null;
+                        }
+                        case "v", "t" -> value = value == null ? new StringBuilder() : value;
+                        default -> {
+                        }
+                    }
+                } else if (event == XMLStreamConstants.CHARACTERS && value != null) {
+                    value.append(xml.getText());
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if ("c".equals(xml.getLocalName())) {
+                        while (cells.size() < column) {
+                            cells.add(null);
+                        }
+                        cells.add(cellValue(type, value, sharedStrings));
+                        value = null;
+                    } else if ("row".equals(xml.getLocalName())) {
+                        handler.row(rowNumber, cells);
+                        cells = null;
+                    }
+                }
+            }
+        } finally {
+            xml.close();
+        }
+    }
+
+    private static String cellValue(String type, StringBuilder value, List<String> sharedStrings) {
+        if (value == null) {
+            return null;
+        }
+        String text = value.toString();
+        if ("s".equals(type)) {
+            return sharedStrings.get(Integer.parseInt(text.trim()));
+        }
+        return text.isEmpty() ? null : text;
+    }
+
+    // Zengin metinli girdilerde tüm <t> parçaları birleştirilir, fonetik (<rPh>) kısımlar atlanır
+    private List<String> readSharedStrings(ZipFile zip) throws IOException, XMLStreamException {
+        List<String> strings = new ArrayList<>();
+        ZipEntry entry = zip.getEntry("xl/sharedStrings.xml");
+        if (entry == null) {
+            return strings;
+        }
+        try (InputStream in = zip.getInputStream(entry)) {
+            XMLStreamReader xml = factory.createXMLStreamReader(in);
+            StringBuilder current = null;
+            boolean inText = false;
+            boolean inPhonetic = false;
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (xml.getLocalName()) {
+                        case "si" -> current = new StringBuilder();
+                        case "rPh" -> inPhonetic = true;
+                        case "t" -> inText = !inPhonetic;
+                        default -> {
+                        }
+                    }
+                } else if (event == XMLStreamConstants.CHARACTERS && inText && current != null) {
+                    current.append(xml.getText());
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    switch (xml.getLocalName()) {
+                        case "si" -> strings.add(current.toString());
+                        case "rPh" -> inPhonetic = false;
+                        case "t" -> inText = false;
+                        default -> {
+                        }
+                    }
+                }
+            }
+            xml.close();
+        }
+        return strings;
+    }
+
+    // workbook.xml'deki ilk sayfanın ilişki hedefi; bulunamazsa varsayılan yol
+    private String firstSheetPath(ZipFile zip) throws IOException, XMLStreamException {
+        String relationId = null;
+        ZipEntry workbook = zip.getEntry("xl/workbook.xml");
+        if (workbook != null) {
+            try (InputStream in = zip.getInputStream(workbook)) {
+                XMLStreamReader xml = factory.createXMLStreamReader(in);
+                while (xml.hasNext() && relationId == null) {
+                    if (xml.next() == XMLStreamConstants.START_ELEMENT && "sheet".equals(xml.getLocalName())) {
+                        relationId = xml.getAttributeValue(RELATIONSHIP_NS, "id");
+                    }
+                }
+                xml.close();
+            }
+        }
+        ZipEntry rels = zip.getEntry("xl/_rels/workbook.xml.rels");
+        if (relationId == null || rels == null) {
+            return "xl/worksheets/sheet1.xml";
+        }
+        Map<String, String> targets = new HashMap<>();
+        try (InputStream in = zip.getInputStream(rels)) {
+            XMLStreamReader xml = factory.createXMLStreamReader(in);
+            while (xml.hasNext()) {
+                if (xml.next() == XMLStreamConstants.START_ELEMENT && "Relationship".equals(xml.getLocalName())) {
+                    targets.put(xml.getAttributeValue(null, "Id"), xml.getAttributeValue(null, "Target"));
+                }
+            }
+            xml.close();
+        }
+        String target = targets.getOrDefault(relationId, "worksheets/sheet1.xml");
+        return target.startsWith("/") ? target.substring(1) : "xl/" + target;
+    }
+
+    // "AB12" -> 27 (0 tabanlı sütun)
+    static int columnIndex(String cellRef) {
+        int column = 0;
+        for (int i = 0; i < cellRef.length() && Character.isLetter(cellRef.charAt(i)); i++) {
+            column = column * 26 + (Character.toUpperCase(cellRef.charAt(i)) - 'A' + 1);
+        }
+        return column - 1;
+    }
+}
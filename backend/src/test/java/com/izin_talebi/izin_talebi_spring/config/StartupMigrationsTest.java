@@ -0,0 +1,115 @@
+package com.izin_talebi.izin_talebi_spring.config;
+
+import com.izin_talebi.izin_talebi_spring.service.UserCache;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@SpringBootTest
+class StartupMigrationsTest {
+
+	// Kilit süresi testten uzun tutulur; devralma yalnızca bırakılan kilitle olabilir
+	private static final long LOCK_TIMEOUT_SECONDS = 300;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private UserCache userCache;
+
+	private final String stepId = "test-" + UUID.randomUUID();
+
+	@AfterEach
+	void tearDown() {
+		mongoTemplate.remove(new Query(where("_id").is(stepId)), "migrations");
+	}
+
+	@Test
+	void concurrentRunnersApplyStepOnce() throws Exception {
+		AtomicInteger applied = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch finish = new CountDownLatch(1);
+		List<StartupMigrations.Step> steps = List.of(new StartupMigrations.Step(stepId, "test", template -> {
+			applied.incrementAndGet();
+			started.countDown();
+			await(finish);
+		}));
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<?> first = executor.submit(() -> {
+				runner(steps).run();
+				return null;
+			});
+			assertTrue(started.await(10, TimeUnit.SECONDS));
+			// İkinci runner adım sürerken başlar, kilidi alamaz ve birkaç yoklama turu bekler
+			Future<?> second = executor.submit(() -> {
+				runner(steps).run();
+				return null;
+			});
+			Thread.sleep(1_000);
+			assertEquals("RUNNING", record().getString("status"));
+			finish.countDown();
+			first.get(10, TimeUnit.SECONDS);
+			second.get(10, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(1, applied.get());
+		assertEquals("DONE", record().getString("status"));
+	}
+
+	@Test
+	void failedStepReleasesLockForNextRunner() {
+		List<StartupMigrations.Step> failing = List.of(new StartupMigrations.Step(stepId, "test", template -> {
+			throw new IllegalStateException("adım hatası");
+		}));
+		assertThrows(IllegalStateException.class, () -> runner(failing).run());
+		assertEquals("FAILED", record().getString("status"));
+
+		AtomicInteger applied = new AtomicInteger();
+		List<StartupMigrations.Step> fixed = List.of(new StartupMigrations.Step(stepId, "test",
+				template -> applied.incrementAndGet()));
+		assertTimeoutPreemptively(Duration.ofSeconds(10), () -> runner(fixed).run());
+
+		assertEquals(1, applied.get());
+		assertEquals("DONE", record().getString("status"));
+	}
+
+	private StartupMigrations runner(List<StartupMigrations.Step> steps) {
+		return new StartupMigrations(mongoTemplate, userCache, LOCK_TIMEOUT_SECONDS, steps);
+	}
+
+	private Document record() {
+		return mongoTemplate.findById(stepId, Document.class, "migrations");
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package com.izin_talebi.izin_talebi_spring.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.izin_talebi.izin_talebi_spring.model.IzinTalebi;
+import com.izin_talebi.izin_talebi_spring.model.User;
+import com.izin_talebi.izin_talebi_spring.security.JwtUtil;
+import com.izin_talebi.izin_talebi_spring.service.ReactiveLeaveQueryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// NDJSON akışı ASYNC dispatch ile tamamlanır; kimlik o dispatch'te de geçerli olmalı
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReactiveReadControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@MockBean
+	private ReactiveLeaveQueryService reactiveLeaveQueryService;
+
+	private int calisanId;
+	private String token;
+
+	@BeforeEach
+	void setUp() {
+		calisanId = -ThreadLocalRandom.current().nextInt(1_000_000, Integer.MAX_VALUE);
+		User user = User.builder()
+				.calisanId(calisanId)
+				.email("reactive-" + calisanId + "@test.local")
+				.role("USER")
+				.pozisyon("Yazılım Geliştirici")
+				.build();
+		mongoTemplate.insert(user);
+		token = jwtUtil.generateToken(user);
+	}
+
+	@AfterEach
+	void tearDown() {
+		mongoTemplate.remove(new Query(where("calisanId").is(calisanId)), User.class);
+	}
+
+	@Test
+	void authenticatedStreamCompletesAfterAsyncDispatch() throws Exception {
+		// Kayıtlar gecikmeli gelir; yanıt servlet thread'i bırakıldıktan sonra yazılır
+		when(reactiveLeaveQueryService.getIzinTalepleri(calisanId, null, null, null))
+				.thenReturn(Flux.just(izinTalebi("a1", "06.01.2025-10.01.2025"), izinTalebi("a2", "13.01.2025-14.01.2025"))
+						.delayElements(Duration.ofMillis(20)));
+
+		MvcResult started = mockMvc.perform(get("/api/reactive/izin-talepleri")
+						.header("Authorization", "Bearer " + token)
+						.accept(MediaType.APPLICATION_NDJSON))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		MvcResult completed = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+				.andReturn();
+
+		List<String> lines = Arrays.stream(completed.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n"))
+				.filter(line -> !line.isBlank())
+				.toList();
+		assertEquals(List.of("a1", "a2"), lines.stream()
+				.map(line -> read(line).getId())
+				.toList());
+		// Normal çalışan yalnızca kendi taleplerini görür
+		verify(reactiveLeaveQueryService).getIzinTalepleri(calisanId, null, null, null);
+	}
+
+	@Test
+	void unauthenticatedStreamIsRejectedBeforeQuerying() throws Exception {
+		mockMvc.perform(get("/api/reactive/izin-talepleri").accept(MediaType.APPLICATION_NDJSON))
+				.andExpect(request().asyncNotStarted())
+				.andExpect(status().isForbidden());
+
+		verifyNoInteractions(reactiveLeaveQueryService);
+	}
+
+	private IzinTalebi read(String line) {
+		try {
+			return objectMapper.readValue(line, IzinTalebi.class);
+		} catch (Exception e) {
+			throw new AssertionError("NDJSON satırı okunamadı: " + line, e);
+		}
+	}
+
+	private IzinTalebi izinTalebi(String id, String dates) {
+		return IzinTalebi.builder()
+				.id(id)
+				.calisanId(calisanId)
+				.requestedDates(dates)
+				.requestStatus("BEKLEMEDE")
+				.build();
+	}
+}
@@ -0,0 +1,182 @@
+package com.izin_talebi.izin_talebi_spring.controller;
+
+import com.izin_talebi.izin_talebi_spring.model.IzinTalebi;
+import com.izin_talebi.izin_talebi_spring.model.User;
+import com.izin_talebi.izin_talebi_spring.security.JwtUtil;
+import com.izin_talebi.izin_talebi_spring.service.IzinTalebiService;
+import com.izin_talebi.izin_talebi_spring.service.ReactiveLeaveQueryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Yavaş cursor altında gerçek uygulamada MVC listeleme ucu ile NDJSON akış ucunu yükler.
+ * Her yanıt birkaç gecikmeli batch'ten oluşur. MVC ucunda bekleme Tomcat thread'ini tutar, aynı anda
+ * açık yanıt sayısı havuzla sınırlıdır; reaktif uçta bekleme zamanlayıcıdadır, sınır yoktur.
+ * Süreler yalnızca loglanır. Yalnızca -Pbenchmark ile çalışır.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"server.tomcat.threads.max=" + ReactiveStreamingLoadTest.TOMCAT_MAX_THREADS,
+		"spring.threads.virtual.enabled=false"
+})
+class ReactiveStreamingLoadTest {
+	private static final Logger logger = LoggerFactory.getLogger(ReactiveStreamingLoadTest.class);
+
+	static final int TOMCAT_MAX_THREADS = 20;
+	private static final int REQUESTS = 100;
+	// Yanıt başına cursor batch sayısı ve her getMore'un gecikmesi
+	private static final int BATCHES = 5;
+	private static final int BATCH_SIZE = 20;
+	private static final long BATCH_LATENCY_MILLIS = 50;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger peakInFlight = new AtomicInteger();
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@MockBean
+	private IzinTalebiService izinTalebiService;
+
+	@MockBean
+	private ReactiveLeaveQueryService reactiveLeaveQueryService;
+
+	private int calisanId;
+	private String token;
+
+	@BeforeEach
+	void setUp() {
+		calisanId = -ThreadLocalRandom.current().nextInt(1_000_000, Integer.MAX_VALUE);
+		User user = User.builder()
+				.calisanId(calisanId)
+				.email("stream-" + calisanId + "@test.local")
+				.role("USER")
+				.pozisyon("Yazılım Geliştirici")
+				.build();
+		mongoTemplate.insert(user);
+		token = jwtUtil.generateToken(user);
+		inFlight.set(0);
+		peakInFlight.set(0);
+	}
+
+	@AfterEach
+	void tearDown() {
+		mongoTemplate.remove(new Query(where("calisanId").is(calisanId)), User.class);
+	}
+
+	@Test
+	void blockingListIsCappedByTomcatPool() throws Exception {
+		// Her batch beklemesi isteği işleyen thread'i bloklar
+		when(izinTalebiService.getIzinTalepleriByCalisanId(anyInt())).thenAnswer(invocation -> {
+			open();
+			try {
+				List<IzinTalebi> rows = new ArrayList<>();
+				for (int batch = 0; batch < BATCHES; batch++) {
+					Thread.sleep(BATCH_LATENCY_MILLIS);
+					IntStream.range(0, BATCH_SIZE).forEach(i -> rows.add(row(rows.size())));
+				}
+				return rows;
+			} finally {
+				inFlight.decrementAndGet();
+			}
+		});
+
+		int peak = load("/api/izin-talepleri", "application/json", "mvc");
+		assertTrue(peak <= TOMCAT_MAX_THREADS, "peak " + peak);
+	}
+
+	@Test
+	void reactiveStreamIsNotCappedByTomcatPool() throws Exception {
+		// Batch'ler zamanlayıcıda beklenir; servlet thread'i akış başlayınca bırakılır
+		when(reactiveLeaveQueryService.getIzinTalepleri(anyInt(), any(), any(), any())).thenAnswer(invocation ->
+				Flux.range(0, BATCHES)
+						.concatMap(batch -> Mono.delay(Duration.ofMillis(BATCH_LATENCY_MILLIS))
+								.thenMany(Flux.range(batch * BATCH_SIZE, BATCH_SIZE).map(this::row)), 1)
+						.doOnSubscribe(subscription -> open())
+						.doFinally(signal -> inFlight.decrementAndGet()));
+
+		int peak = load("/api/reactive/izin-talepleri", "application/x-ndjson", "reactive");
+		assertTrue(peak > TOMCAT_MAX_THREADS, "peak " + peak);
+	}
+
+	// Tüm istekler aynı anda gönderilir; aynı anda açık yanıtların tepe sayısını döner
+	private int load(String path, String accept, String mode) throws Exception {
+		URI uri = URI.create("http://127.0.0.1:" + port + path);
+		long start = System.nanoTime();
+		try (HttpClient client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.executor(Executors.newVirtualThreadPerTaskExecutor())
+				.build()) {
+			List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>(REQUESTS);
+			for (int i = 0; i < REQUESTS; i++) {
+				HttpRequest request = HttpRequest.newBuilder(uri)
+						.header("Authorization", "Bearer " + token)
+						.header("Accept", accept)
+						.GET()
+						.build();
+				responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+			}
+			for (CompletableFuture<HttpResponse<String>> response : responses) {
+				HttpResponse<String> completed = response.get(60, TimeUnit.SECONDS);
+				assertEquals(200, completed.statusCode());
+				assertTrue(completed.body().contains("row-" + (BATCHES * BATCH_SIZE - 1)), "response was cut short");
+			}
+		}
+		logger.info("{}: {} listings of {} rows with {} ms per batch in {} ms, peak {} open responses",
+				mode, REQUESTS, BATCHES * BATCH_SIZE, BATCH_LATENCY_MILLIS,
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), peakInFlight.get());
+		return peakInFlight.get();
+	}
+
+	private void open() {
+		peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+	}
+
+	private IzinTalebi row(int i) {
+		return IzinTalebi.builder()
+				.id("row-" + i)
+				.calisanId(calisanId)
+				.requestedDates("06.01.2025-10.01.2025")
+				.requestStatus("BEKLEMEDE")
+				.build();
+	}
+}
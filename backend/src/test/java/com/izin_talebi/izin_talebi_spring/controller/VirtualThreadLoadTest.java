@@ -0,0 +1,206 @@
+package com.izin_talebi.izin_talebi_spring.controller;
+
+import com.izin_talebi.izin_talebi_spring.model.User;
+import com.izin_talebi.izin_talebi_spring.security.JwtUtil;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Yavaş LLM altında gerçek uygulamayı spring.threads.virtual.enabled kapalı ve açık olarak yükler.
+ * İstekler Tomcat, güvenlik filtresi, OpenAIController ve OpenAIService üzerinden stub LLM'e gider.
+ * Platform thread'lerinde stub'a aynı anda ulaşan istek sayısı Tomcat havuzuyla sınırlıdır,
+ * sanal thread'lerde değildir. Yalnızca -Pbenchmark ile çalışır.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"server.tomcat.threads.max=" + VirtualThreadLoadTest.TOMCAT_MAX_THREADS,
+		"openai.batch.enabled=false",
+		"openai.http.max-concurrency=1000",
+		"openai.http.acquire-timeout-millis=30000",
+		"openai.http.max-attempts=1",
+		"openai.circuit.failure-threshold=0",
+		"izin.analysis.concurrency=0"
+})
+class VirtualThreadLoadTest {
+	private static final Logger logger = LoggerFactory.getLogger(VirtualThreadLoadTest.class);
+
+	static final int TOMCAT_MAX_THREADS = 20;
+	private static final int REQUESTS = 100;
+	private static final long LLM_LATENCY_MILLIS = 300;
+
+	private static final AtomicInteger llmCalls = new AtomicInteger();
+	private static final AtomicInteger llmInFlight = new AtomicInteger();
+	private static final AtomicInteger llmPeak = new AtomicInteger();
+	private static HttpServer llmStub;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	private int calisanId;
+	private String token;
+
+	@DynamicPropertySource
+	static void llmStub(DynamicPropertyRegistry registry) {
+		registry.add("openai.api-url", () -> "http://127.0.0.1:" + startStub() + "/v1/chat/completions");
+	}
+
+	private static synchronized int startStub() {
+		if (llmStub == null) {
+			try {
+				llmStub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), REQUESTS);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			llmStub.createContext("/v1/chat/completions", exchange -> {
+				llmCalls.incrementAndGet();
+				llmPeak.accumulateAndGet(llmInFlight.incrementAndGet(), Math::max);
+				try (InputStream body = exchange.getRequestBody()) {
+					body.readAllBytes();
+					Thread.sleep(LLM_LATENCY_MILLIS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					llmInFlight.decrementAndGet();
+				}
+				byte[] response = "{\"choices\":[{\"message\":{\"content\":\"yıllık izin\"}}]}"
+						.getBytes(StandardCharsets.UTF_8);
+				exchange.getResponseHeaders().add("Content-Type", "application/json");
+				exchange.sendResponseHeaders(200, response.length);
+				try (OutputStream out = exchange.getResponseBody()) {
+					out.write(response);
+				}
+			});
+			// Stub'ın kendisi darboğaz olmasın
+			llmStub.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+			llmStub.start();
+		}
+		return llmStub.getAddress().getPort();
+	}
+
+	@AfterAll
+	static void stopStub() {
+		if (llmStub != null) {
+			llmStub.stop(0);
+			llmStub = null;
+		}
+	}
+
+	@BeforeEach
+	void setUp() {
+		calisanId = -ThreadLocalRandom.current().nextInt(1_000_000, Integer.MAX_VALUE);
+		User user = User.builder()
+				.calisanId(calisanId)
+				.email("load-" + calisanId + "@test.local")
+				.role("USER")
+				.build();
+		mongoTemplate.insert(user);
+		token = jwtUtil.generateToken(user);
+		llmCalls.set(0);
+		llmPeak.set(0);
+	}
+
+	@AfterEach
+	void tearDown() {
+		mongoTemplate.remove(new Query(where("calisanId").is(calisanId)), User.class);
+	}
+
+	@Nested
+	@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+	class PlatformThreads {
+
+		@LocalServerPort
+		private int port;
+
+		@Test
+		void slowLlmCallsAreCappedByTomcatPool() throws Exception {
+			int peak = load(port, "platform");
+			assertTrue(peak <= TOMCAT_MAX_THREADS, "peak " + peak);
+		}
+	}
+
+	@Nested
+	@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+	class VirtualThreads {
+
+		@LocalServerPort
+		private int port;
+
+		@Test
+		void slowLlmCallsAreNotCappedByTomcatPool() throws Exception {
+			int peak = load(port, "virtual");
+			assertTrue(peak > TOMCAT_MAX_THREADS, "peak " + peak);
+		}
+	}
+
+	// Tüm istekler aynı anda gönderilir; her biri farklı metin taşır ki yanıt önbelleği devreye girmesin
+	private int load(int port, String mode) throws Exception {
+		URI uri = URI.create("http://127.0.0.1:" + port + "/api/openai/analyze");
+		long start = System.nanoTime();
+		try (HttpClient client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.executor(Executors.newVirtualThreadPerTaskExecutor())
+				.build()) {
+			List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>(REQUESTS);
+			for (int i = 0; i < REQUESTS; i++) {
+				HttpRequest request = HttpRequest.newBuilder(uri)
+						.header("Authorization", "Bearer " + token)
+						.header("Content-Type", "text/plain;charset=UTF-8")
+						.POST(HttpRequest.BodyPublishers.ofString("yük testi " + UUID.randomUUID()))
+						.build();
+				responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+			}
+			for (CompletableFuture<HttpResponse<String>> response : responses) {
+				HttpResponse<String> completed = response.get(60, TimeUnit.SECONDS);
+				assertEquals(200, completed.statusCode());
+				assertFalse(completed.body().startsWith("OpenAI API"), completed.body());
+			}
+		}
+		assertEquals(REQUESTS, llmCalls.get());
+		logger.info("{} threads: {} requests with {} ms LLM latency in {} ms, peak {} concurrent LLM calls",
+				mode, REQUESTS, LLM_LATENCY_MILLIS, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+				llmPeak.get());
+		return llmPeak.get();
+	}
+}
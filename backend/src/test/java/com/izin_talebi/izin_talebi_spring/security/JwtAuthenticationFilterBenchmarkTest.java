@@ -0,0 +1,109 @@
+package com.izin_talebi.izin_talebi_spring.security;
+
+import com.izin_talebi.izin_talebi_spring.model.User;
+import com.izin_talebi.izin_talebi_spring.repository.UserRepository;
+import com.izin_talebi.izin_talebi_spring.service.UserCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Filtrenin veritabanı ve durumsuz modlarda saniyedeki istek sayısını, gerçek UserCache ve
+ * gecikmeli bir depo ile karşılaştırır. Durumsuz modda da iptal kontrolü için istek başına bir
+ * önbellek okuması kalır; veritabanına yalnızca önbellek kaçırınca gidilir. Süreler yalnızca
+ * loglanır, doğrulanan veritabanı okuma sayısıdır. Yalnızca -Pbenchmark ile çalışır.
+ */
+@Tag("benchmark")
+class JwtAuthenticationFilterBenchmarkTest {
+	private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilterBenchmarkTest.class);
+
+	private static final int REQUESTS = 2_000;
+	// Mongo findByEmail gidiş-dönüşünü taklit eder
+	private static final long SIMULATED_DB_LATENCY_MICROS = 300;
+
+	private final JwtUtil jwtUtil = new JwtUtil(10_000);
+	private final AtomicInteger dbLookups = new AtomicInteger();
+
+	private final User user = User.builder()
+			.id("65f0c0ffee0000000000beef")
+			.email("ayse.tekin@talenteer.com")
+			.password("sifre")
+			.role("Çalışan")
+			.calisanId(4)
+			.pozisyon("Şantiye Şefi")
+			.enabled(true)
+			.build();
+
+	@AfterEach
+	void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void warmCacheServesBothModesWithOneDatabaseRead() throws Exception {
+		String token = jwtUtil.generateToken(user);
+
+		assertEquals(1, run("database, warm cache", false, new UserCache(5_000, 300), token));
+		assertEquals(1, run("stateless, warm cache", true, new UserCache(5_000, 300), token));
+	}
+
+	@Test
+	void coldCacheReadsDatabaseOncePerRequestInBothModes() throws Exception {
+		String token = jwtUtil.generateToken(user);
+
+		// TTL 0: her giriş okunduğu anda süresi dolmuş sayılır
+		assertEquals(REQUESTS, run("database, cold cache", false, new UserCache(5_000, 0), token));
+		assertEquals(REQUESTS, run("stateless, cold cache", true, new UserCache(5_000, 0), token));
+	}
+
+	// Veritabanı okuma sayısını döner
+	private int run(String mode, boolean statelessAuth, UserCache userCache, String token) throws Exception {
+		dbLookups.set(0);
+		JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil,
+				new CustomUserDetailsService(repository(), userCache, mock(MongoTemplate.class)), statelessAuth);
+		long start = System.nanoTime();
+		for (int i = 0; i < REQUESTS; i++) {
+			MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/izin-talepleri");
+			request.addHeader("Authorization", "Bearer " + token);
+			filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+			assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+			SecurityContextHolder.clearContext();
+		}
+		long elapsedNanos = System.nanoTime() - start;
+		logger.info("{}: {} requests in {} ms ({} req/s), {} database reads", mode, REQUESTS,
+				TimeUnit.NANOSECONDS.toMillis(elapsedNanos), Math.round(REQUESTS / (elapsedNanos / 1e9)),
+				dbLookups.get());
+		return dbLookups.get();
+	}
+
+	private UserRepository repository() {
+		UserRepository repository = mock(UserRepository.class);
+		when(repository.findByEmail(anyString())).thenAnswer(invocation -> {
+			dbLookups.incrementAndGet();
+			long until = System.nanoTime() + SIMULATED_DB_LATENCY_MICROS * 1_000;
+			while (System.nanoTime() < until) {
+				Thread.onSpinWait();
+			}
+			return Optional.of(user.toBuilder().build());
+		});
+		return repository;
+	}
+}
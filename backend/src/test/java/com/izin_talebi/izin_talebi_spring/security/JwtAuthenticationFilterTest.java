@@ -0,0 +1,102 @@
+package com.izin_talebi.izin_talebi_spring.security;
+
+import com.izin_talebi.izin_talebi_spring.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+	private final JwtUtil jwtUtil = new JwtUtil(10_000);
+	private final CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+
+	private final User user = user("Şantiye Şefi", 0, true);
+
+	@AfterEach
+	void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void databaseModeUsesLoadedUserAsPrincipal() throws Exception {
+		when(userDetailsService.loadUserByUsername(user.getEmail())).thenReturn(user);
+
+		Authentication authentication = authenticate(false, jwtUtil.generateToken(user));
+
+		assertNotNull(authentication);
+		assertSame(user, authentication.getPrincipal());
+	}
+
+	@Test
+	void statelessModeBuildsPrincipalFromClaims() throws Exception {
+		when(userDetailsService.loadUserByUsername(user.getEmail())).thenReturn(user);
+
+		Authentication authentication = authenticate(true, jwtUtil.generateToken(user));
+
+		assertNotNull(authentication);
+		User principal = (User) authentication.getPrincipal();
+		assertNotSame(user, principal);
+		assertEquals(4, principal.getCalisanId());
+		assertEquals("Şantiye Şefi", principal.getPozisyon());
+		assertEquals("Çalışan", principal.getRole());
+		verify(userDetailsService, times(1)).loadUserByUsername(user.getEmail());
+	}
+
+	@Test
+	void statelessModeRejectsTokenAfterVersionBump() throws Exception {
+		String token = jwtUtil.generateToken(user);
+		User promoted = user("İK Uzmanı", 1, true);
+		when(userDetailsService.loadUserByUsername(user.getEmail())).thenReturn(promoted);
+
+		assertNull(authenticate(true, token));
+	}
+
+	@Test
+	void statelessModeRejectsDisabledOrDeletedUser() throws Exception {
+		String token = jwtUtil.generateToken(user);
+
+		when(userDetailsService.loadUserByUsername(user.getEmail())).thenReturn(user("Şantiye Şefi", 0, false));
+		assertNull(authenticate(true, token));
+
+		when(userDetailsService.loadUserByUsername(user.getEmail())).thenThrow(new UsernameNotFoundException(user.getEmail()));
+		assertNull(authenticate(true, token));
+	}
+
+	private Authentication authenticate(boolean statelessAuth, String token) throws Exception {
+		SecurityContextHolder.clearContext();
+		JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, statelessAuth);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/izin-talepleri");
+		request.addHeader("Authorization", "Bearer " + token);
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+		return SecurityContextHolder.getContext().getAuthentication();
+	}
+
+	private static User user(String pozisyon, int tokenVersion, boolean enabled) {
+		return User.builder()
+				.id("65f0c0ffee0000000000beef")
+				.email("ayse.tekin@talenteer.com")
+				.password("sifre")
+				.role("Çalışan")
+				.calisanId(4)
+				.adSoyad("Ayşe Tekin")
+				.pozisyon(pozisyon)
+				.tokenVersion(tokenVersion)
+				.enabled(enabled)
+				.build();
+	}
+}
@@ -0,0 +1,94 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import com.izin_talebi.izin_talebi_spring.model.DateRange;
+import com.izin_talebi.izin_talebi_spring.model.IzinTalebi;
+import com.izin_talebi.izin_talebi_spring.model.User;
+import com.izin_talebi.izin_talebi_spring.model.UserSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AvailabilityIndexTest {
+
+	private static final int EMPLOYEES = 5_000;
+	private static final LocalDate MONDAY = LocalDate.of(2025, 1, 6);
+
+	private final AvailabilityIndex index = new AvailabilityIndex(mongoTemplate(), new UserCache(EMPLOYEES * 2, 300));
+
+	// Kurulum boş veritabanıyla biter; kayıtlar update ile eklenir
+	@BeforeEach
+	void setUp() {
+		index.rebuild();
+	}
+
+	@Test
+	void answersRangeAndTeamQueries() {
+		index.update(1, range(0, 4), IzinTalebiService.STATUS_APPROVED);
+		index.update(2, range(3, 3), IzinTalebiService.STATUS_PENDING);
+		index.update(3, range(10, 12), IzinTalebiService.STATUS_APPROVED);
+
+		assertEquals(List.of(1), calisanIds(index.whoIsOff(range(2, 5), null, false)));
+		assertEquals(List.of(1, 2), calisanIds(index.whoIsOff(range(2, 5), null, true)));
+		assertEquals(List.of(1), calisanIds(index.whoIsOff(range(0, 20), "Ekip-1", false)));
+		assertEquals(List.of(), calisanIds(index.whoIsOff(range(0, 20), "Ekip-2", false)));
+		assertEquals(List.of(2), calisanIds(index.whoIsOff(range(0, 20), "Ekip-2", true)));
+
+		index.update(2, range(3, 3), IzinTalebiService.STATUS_APPROVED);
+		index.update(1, range(0, 4), IzinTalebiService.STATUS_REJECTED);
+		assertEquals(List.of(2), calisanIds(index.whoIsOff(range(0, 5), null, false)));
+		assertEquals(List.of(2), calisanIds(index.whoIsOff(range(0, 5), null, true)));
+	}
+
+	// Binlerce çalışanla aylık ekip sorgusu, çalışan bazında hesaplanan sonuçla aynı olmalı
+	@Test
+	void monthlyTeamQueryMatchesPerEmployeeCheck() {
+		List<Integer> expected = new ArrayList<>();
+		for (int calisanId = 1; calisanId <= EMPLOYEES; calisanId++) {
+			int offset = calisanId % 60;
+			index.update(calisanId, range(offset, offset + calisanId % 5), IzinTalebiService.STATUS_APPROVED);
+			if (calisanId % 4 == 3 && offset <= 30) {
+				expected.add(calisanId);
+			}
+		}
+
+		assertEquals(expected, calisanIds(index.whoIsOff(range(0, 30), "Ekip-3", false)));
+	}
+
+	private static DateRange range(int fromOffset, int toOffset) {
+		return new DateRange(MONDAY.plusDays(fromOffset), MONDAY.plusDays(toOffset));
+	}
+
+	private static List<Integer> calisanIds(List<UserSnapshot> employees) {
+		return employees.stream().map(UserSnapshot::getCalisanId).sorted().toList();
+	}
+
+	// Çalışan i, "Ekip-(i % 4)" ekibinde
+	private static MongoTemplate mongoTemplate() {
+		MongoTemplate template = mock(MongoTemplate.class);
+		when(template.findOne(any(Query.class), eq(User.class))).thenAnswer(invocation -> {
+			Query query = invocation.getArgument(0);
+			Integer calisanId = (Integer) query.getQueryObject().get("calisanId");
+			return User.builder()
+					.calisanId(calisanId)
+					.email("calisan" + calisanId + "@test.local")
+					.adSoyad("Çalışan " + calisanId)
+					.pozisyon("Ekip-" + calisanId % 4)
+					.build();
+		});
+		when(template.stream(any(Query.class), eq(User.class))).thenAnswer(invocation -> Stream.empty());
+		when(template.stream(any(Query.class), eq(IzinTalebi.class))).thenAnswer(invocation -> Stream.empty());
+		return template;
+	}
+}
@@ -0,0 +1,245 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import com.izin_talebi.izin_talebi_spring.model.ImportProgress;
+import com.izin_talebi.izin_talebi_spring.model.IzinTalebi;
+import com.izin_talebi.izin_talebi_spring.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// Küçük grup boyutu ile aktarım birkaç grupta yazılır
+@SpringBootTest(properties = "izin.import.batch-size=2")
+class DatasetImportServiceTest {
+
+	private static final List<String> HEADER = List.of("Çalışan ID", "Ad-Soyad", "Pozisyon", "Unvan",
+			"İşe Başlama Tarihi", "Kullanılan İzin", "Kalan İzin", "Talep Oluşturma Tarihi",
+			"Talep Edilen İzin Tarihleri", "Talep Durumu", "Talep Açıklaması");
+
+	@Autowired
+	private DatasetImportService datasetImportService;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@TempDir
+	private Path dir;
+
+	private int calisanId;
+	private final List<String> fileIds = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		calisanId = -ThreadLocalRandom.current().nextInt(1_000_000, Integer.MAX_VALUE);
+	}
+
+	@AfterEach
+	void tearDown() {
+		mongoTemplate.remove(new Query(where("calisanId").in(calisanId, calisanId - 1)), IzinTalebi.class);
+		mongoTemplate.remove(new Query(where("calisanId").in(calisanId, calisanId - 1)), User.class);
+		mongoTemplate.remove(new Query(where("_id").in(fileIds)), ImportProgress.class);
+	}
+
+	@Test
+	void mapsValidRowsAndSkipsInvalidOnes() throws Exception {
+		Path file = xlsx(List.of(
+				row(calisanId, "12.08.2024-16.08.2024", "Onaylandı", "\"Yaz tatili\""),
+				row(calisanId, "01.09.2024-02.09.2024", "Beklemede mi?", "Bilinmeyen durum"),
+				row(calisanId, "2024-09-01", "Bekliyor", "Hatalı tarih"),
+				row(calisanId, "14.10.2024-14.10.2024", "Reddedildi", null)));
+
+		ImportProgress progress = datasetImportService.importFile(file);
+
+		assertTrue(progress.isCompleted());
+		assertEquals(1, progress.getUsersInserted());
+		assertEquals(2, progress.getRequestsInserted());
+		assertEquals(2, progress.getRowsSkipped());
+		assertEquals(5, progress.getLastRow());
+
+		User user = mongoTemplate.findOne(new Query(where("calisanId").is(calisanId)), User.class);
+		assertEquals(name(calisanId), user.getAdSoyad());
+		assertEquals("Yazılım Geliştirici", user.getPozisyon());
+		assertEquals("Çalışan", user.getRole());
+		assertEquals("2021-03-15", user.getWorkStartDate());
+		assertEquals(4, user.getUsedDays());
+		assertEquals(10, user.getRemainingDays());
+		assertEquals(email(calisanId), user.getEmail());
+
+		List<IzinTalebi> requests = requests();
+		assertEquals(List.of(IzinTalebiService.STATUS_APPROVED, IzinTalebiService.STATUS_REJECTED),
+				requests.stream().map(IzinTalebi::getRequestStatus).toList());
+		assertEquals("Yaz tatili", requests.get(0).getRequestDesc());
+		assertEquals("2024-07-28T12:00", requests.get(0).getRequestTime());
+	}
+
+	@Test
+	void rerunAfterLostProgressIgnoresDuplicateKeys() throws Exception {
+		Path file = xlsx(List.of(
+				row(calisanId, "12.08.2024-16.08.2024", "Bekliyor", null),
+				row(calisanId, "14.10.2024-14.10.2024", "Bekliyor", null),
+				row(calisanId - 1, "21.10.2024-21.10.2024", "Bekliyor", null)));
+		datasetImportService.importFile(file);
+		// Kayıtlar yazılmış ama ilerleme kaybolmuş gibi baştan çalıştır
+		mongoTemplate.remove(new Query(where("_id").in(fileIds)), ImportProgress.class);
+		mongoTemplate.remove(new Query(where("calisanId").is(calisanId - 1)), User.class);
+
+		ImportProgress progress = datasetImportService.importFile(file);
+
+		assertTrue(progress.isCompleted());
+		assertEquals(1, progress.getUsersInserted());
+		assertEquals(0, progress.getRequestsInserted());
+		assertEquals(3, requests().size());
+	}
+
+	@Test
+	void resumesAfterLastSavedRowWithoutRecountingSkips() throws Exception {
+		Path file = xlsx(List.of(
+				row(calisanId, "12.08.2024-16.08.2024", "Bekliyor", null),
+				row(calisanId, "yok", "Bekliyor", null),
+				row(calisanId, "14.10.2024-14.10.2024", "Bekliyor", null),
+				row(calisanId, "hâlâ yok", "Bekliyor", null),
+				row(calisanId, "21.10.2024-21.10.2024", "Bekliyor", null)));
+		// Önceki çalıştırma 4. satıra kadar yazıp durmuş: 1 kullanıcı, 2 talep, 1 atlanan satır
+		mongoTemplate.insert(User.builder()
+				.calisanId(calisanId)
+				.adSoyad(name(calisanId))
+				.email("import-" + calisanId + "@test.local")
+				.build());
+		mongoTemplate.save(ImportProgress.builder()
+				.id(sha256(file))
+				.fileName(file.getFileName().toString())
+				.lastRow(4)
+				.usersInserted(1)
+				.requestsInserted(2)
+				.rowsSkipped(1)
+				.build());
+
+		ImportProgress progress = datasetImportService.importFile(file);
+
+		assertTrue(progress.isCompleted());
+		assertEquals(1, progress.getUsersInserted());
+		assertEquals(3, progress.getRequestsInserted());
+		assertEquals(2, progress.getRowsSkipped());
+		assertEquals(6, progress.getLastRow());
+		// Devam eden aktarım yalnızca 5. ve 6. satırları okur; önceki talepler bu testte hiç yazılmadı
+		assertEquals(List.of("21.10.2024-21.10.2024"),
+				requests().stream().map(IzinTalebi::getRequestedDates).toList());
+	}
+
+	@Test
+	void takenEmailFallsBackToAddressWithCalisanId() throws Exception {
+		// Aynı adlı başka bir çalışan elle kayıt olmuş
+		mongoTemplate.insert(User.builder()
+				.calisanId(calisanId - 1)
+				.email(email(calisanId))
+				.build());
+		Path file = xlsx(List.of(row(calisanId, "12.08.2024-16.08.2024", "Bekliyor", null)));
+
+		ImportProgress progress = datasetImportService.importFile(file);
+
+		assertEquals(1, progress.getUsersInserted());
+		assertEquals(1, progress.getRequestsInserted());
+		User user = mongoTemplate.findOne(new Query(where("calisanId").is(calisanId)), User.class);
+		assertEquals(email(calisanId).replace("@", "." + calisanId + "@"), user.getEmail());
+	}
+
+	@Test
+	void employeeWithUnavailableEmailIsSkippedWithTheirRows() throws Exception {
+		mongoTemplate.insert(User.builder().calisanId(calisanId - 1).email(email(calisanId)).build());
+		mongoTemplate.insert(User.builder().calisanId(calisanId - 1)
+				.email(email(calisanId).replace("@", "." + calisanId + "@")).build());
+		Path file = xlsx(List.of(
+				row(calisanId, "12.08.2024-16.08.2024", "Bekliyor", null),
+				row(calisanId, "14.10.2024-14.10.2024", "Bekliyor", null),
+				row(calisanId, "21.10.2024-21.10.2024", "Bekliyor", null)));
+
+		ImportProgress progress = datasetImportService.importFile(file);
+
+		assertTrue(progress.isCompleted());
+		assertEquals(0, progress.getUsersInserted());
+		assertEquals(0, progress.getRequestsInserted());
+		assertEquals(3, progress.getRowsSkipped());
+		// Sahipsiz izin talebi yazılmaz
+		assertEquals(0, mongoTemplate.count(new Query(where("calisanId").is(calisanId)), IzinTalebi.class));
+		assertEquals(0, mongoTemplate.count(new Query(where("calisanId").is(calisanId)), User.class));
+	}
+
+	private List<IzinTalebi> requests() {
+		Query query = new Query(where("calisanId").in(calisanId, calisanId - 1));
+		query.with(Sort.by("requestedDates"));
+		return mongoTemplate.find(query, IzinTalebi.class);
+	}
+
+	// İşe başlama 44270 = 15.03.2021, talep tarihi 45501.5 = 28.07.2024 12:00
+	private List<String> row(int id, String dates, String status, String description) {
+		List<String> cells = new ArrayList<>(List.of(String.valueOf(id), name(id), "Yazılım Geliştirici", "",
+				"44270", "4", "10", "45501.5", dates, status));
+		cells.add(description);
+		return cells;
+	}
+
+	private static String email(int id) {
+		return "deneme.calisan." + -id + "@talenteer.com";
+	}
+
+	private static String name(int id) {
+		return "Deneme Çalışan " + -id;
+	}
+
+	// Yalnızca ilk sayfadan oluşan, satır içi metin hücreli en küçük xlsx
+	private Path xlsx(List<List<String>> rows) throws Exception {
+		StringBuilder sheet = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+				+ "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+		List<List<String>> all = new ArrayList<>();
+		all.add(HEADER);
+		all.addAll(rows);
+		for (int r = 0; r < all.size(); r++) {
+			sheet.append("<row r=\"").append(r + 1).append("\">");
+			List<String> cells = all.get(r);
+			for (int c = 0; c < cells.size(); c++) {
+				if (cells.get(c) == null || cells.get(c).isEmpty()) {
+					continue;
+				}
+				sheet.append("<c r=\"").append((char) ('A' + c)).append(r + 1).append("\" t=\"inlineStr\"><is><t>")
+						.append(cells.get(c).replace("&", "&amp;").replace("<", "&lt;"))
+						.append("</t></is></c>");
+			}
+			sheet.append("</row>");
+		}
+		sheet.append("</sheetData></worksheet>");
+
+		Path file = dir.resolve("dataset-" + -calisanId + "-" + rows.size() + ".xlsx");
+		try (OutputStream out = Files.newOutputStream(file); ZipOutputStream zip = new ZipOutputStream(out)) {
+			zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+			zip.write(sheet.toString().getBytes(StandardCharsets.UTF_8));
+			zip.closeEntry();
+		}
+		fileIds.add(sha256(file));
+		return file;
+	}
+
+	private static String sha256(Path file) throws Exception {
+		return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file)));
+	}
+}
@@ -0,0 +1,37 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DayCapacityTreeTest {
+
+	private static final int DAYS = 1_000;
+
+	@Test
+	void matchesBruteForceRangeAddAndMax() {
+		Random random = new Random(7);
+		DayCapacityTree tree = new DayCapacityTree(DAYS);
+		int[] counts = new int[DAYS];
+
+		for (int step = 0; step < 20_000; step++) {
+			int from = random.nextInt(DAYS);
+			int to = Math.min(DAYS - 1, from + random.nextInt(40));
+			int delta = random.nextBoolean() ? 1 : -1;
+			tree.add(from, to, delta);
+			for (int day = from; day <= to; day++) {
+				counts[day] += delta;
+			}
+
+			int qFrom = random.nextInt(DAYS);
+			int qTo = Math.min(DAYS - 1, qFrom + random.nextInt(80));
+			int expected = Integer.MIN_VALUE;
+			for (int day = qFrom; day <= qTo; day++) {
+				expected = Math.max(expected, counts[day]);
+			}
+			assertEquals(expected, tree.max(qFrom, qTo));
+		}
+	}
+}
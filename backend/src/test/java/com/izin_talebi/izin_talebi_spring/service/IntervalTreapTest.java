@@ -0,0 +1,48 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IntervalTreapTest {
+
+	@Test
+	void matchesBruteForceUnderRandomInsertsAndRemovals() {
+		Random random = new Random(42);
+		IntervalTreap treap = new IntervalTreap();
+		Map<String, long[]> reference = new HashMap<>();
+
+		for (int step = 0; step < 20_000; step++) {
+			String id = "r" + random.nextInt(500);
+			if (random.nextInt(4) == 0) {
+				treap.remove(id);
+				reference.remove(id);
+			} else {
+				long start = random.nextInt(3_000);
+				long end = start + random.nextInt(30);
+				treap.insert(id, start, end);
+				reference.put(id, new long[]{start, end});
+			}
+
+			long from = random.nextInt(3_000);
+			long to = from + random.nextInt(60);
+			List<String> expected = new ArrayList<>();
+			reference.forEach((key, range) -> {
+				if (range[0] <= to && range[1] >= from) {
+					expected.add(key);
+				}
+			});
+			List<String> actual = treap.overlapping(from, to);
+			expected.sort(null);
+			actual.sort(null);
+			assertEquals(expected, actual);
+			assertEquals(reference.size(), treap.size());
+		}
+	}
+}
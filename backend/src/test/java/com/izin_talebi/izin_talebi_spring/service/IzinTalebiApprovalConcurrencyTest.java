@@ -0,0 +1,199 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import com.izin_talebi.izin_talebi_spring.model.IzinTalebi;
+import com.izin_talebi.izin_talebi_spring.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Aynı çalışanın taleplerini eşzamanlı onaylayarak bakiyenin kaybolan güncelleme olmadan
+ * tam olarak düştüğünü ve bakiyeyi aşan onayların reddedildiğini doğrular. Diğer Mongo testleri gibi
+ * varsayılan sette çalışır; tek sunucuda koşullu güncelleme ve geri alma, replica set'te transaction kullanılır.
+ */
+@SpringBootTest
+class IzinTalebiApprovalConcurrencyTest {
+
+	private static final int THREADS = 16;
+	private static final int REQUESTS = 40;
+	private static final int BALANCE = 10;
+	// 6 Ocak 2025 Pazartesi; sonraki hafta içi günlerde resmi tatil yok
+	private static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 6);
+	private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+	@Autowired
+	private IzinTalebiService izinTalebiService;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	private int calisanId;
+
+	@BeforeEach
+	void setUp() {
+		calisanId = -ThreadLocalRandom.current().nextInt(1_000_000, Integer.MAX_VALUE);
+		mongoTemplate.insert(User.builder()
+				.calisanId(calisanId)
+				.email("stress-" + calisanId + "@test.local")
+				.role("USER")
+				.usedDays(0)
+				.remainingDays(BALANCE)
+				.build());
+	}
+
+	@AfterEach
+	void tearDown() {
+		mongoTemplate.remove(new Query(where("calisanId").is(calisanId)), IzinTalebi.class);
+		mongoTemplate.remove(new Query(where("calisanId").is(calisanId)), User.class);
+	}
+
+	@Test
+	void concurrentApprovalsNeverOverdrawBalance() throws Exception {
+		List<String> ids = new ArrayList<>();
+		LocalDate day = FIRST_DAY;
+		for (int i = 0; i < REQUESTS; i++) {
+			ids.add(izinTalebiService.createIzinTalebi(request(day)).getId());
+			day = nextWeekday(day);
+		}
+
+		int approved = 0;
+		int conflicts = 0;
+		for (Future<Boolean> result : runConcurrently(ids)) {
+			if (result.get()) {
+				approved++;
+			} else {
+				conflicts++;
+			}
+		}
+
+		User user = mongoTemplate.findOne(new Query(where("calisanId").is(calisanId)), User.class);
+		assertEquals(BALANCE, approved);
+		assertEquals(REQUESTS - BALANCE, conflicts);
+		assertEquals(0, user.getRemainingDays());
+		assertEquals(BALANCE, user.getUsedDays());
+		assertEquals(BALANCE, countByStatus("ONAYLANDI"));
+		assertEquals(REQUESTS - BALANCE, countByStatus("BEKLEMEDE"));
+	}
+
+	@Test
+	void sameRequestIsApprovedOnlyOnce() throws Exception {
+		String id = izinTalebiService.createIzinTalebi(request(FIRST_DAY)).getId();
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < THREADS * 2; i++) {
+			ids.add(id);
+		}
+
+		int approved = 0;
+		for (Future<Boolean> result : runConcurrently(ids)) {
+			if (result.get()) {
+				approved++;
+			}
+		}
+
+		User user = mongoTemplate.findOne(new Query(where("calisanId").is(calisanId)), User.class);
+		assertEquals(1, approved);
+		assertEquals(BALANCE - 1, user.getRemainingDays());
+		assertEquals(1, user.getUsedDays());
+	}
+
+	@Test
+	void zeroDayRequestIsApprovedWithoutTouchingBalance() {
+		// 11 Ocak 2025 Cumartesi; düşülecek iş günü yok
+		IzinTalebi weekend = mongoTemplate.insert(pending(calisanId, LocalDate.of(2025, 1, 11)));
+
+		assertEquals("ONAYLANDI", izinTalebiService.approveIzinTalebi(weekend.getId()).orElseThrow().getRequestStatus());
+
+		User user = mongoTemplate.findOne(new Query(where("calisanId").is(calisanId)), User.class);
+		assertEquals(BALANCE, user.getRemainingDays());
+		assertEquals(0, user.getUsedDays());
+	}
+
+	@Test
+	void approvalForMissingEmployeeIsReportedAsSuch() {
+		int missing = calisanId - 1;
+		IzinTalebi orphan = mongoTemplate.insert(pending(missing, FIRST_DAY));
+		try {
+			IllegalStateException e = assertThrows(IllegalStateException.class,
+					() -> izinTalebiService.approveIzinTalebi(orphan.getId()));
+
+			assertEquals("Talebin sahibi olan çalışan bulunamadı", e.getMessage());
+			assertEquals("BEKLEMEDE", mongoTemplate.findById(orphan.getId(), IzinTalebi.class).getRequestStatus());
+		} finally {
+			mongoTemplate.remove(new Query(where("calisanId").is(missing)), IzinTalebi.class);
+		}
+	}
+
+	// Oluşturma kontrollerini atlayarak doğrudan BEKLEMEDE kayıt
+	private static IzinTalebi pending(int calisanId, LocalDate day) {
+		String date = day.format(DATE_FORMAT);
+		return IzinTalebi.builder()
+				.calisanId(calisanId)
+				.requestedDates(date + "-" + date)
+				.requestStatus("BEKLEMEDE")
+				.build();
+	}
+
+	// Çakışma kontrolüne takılmamak için her talep ayrı bir iş günü
+	private IzinTalebi request(LocalDate day) {
+		String date = day.format(DATE_FORMAT);
+		return IzinTalebi.builder()
+				.calisanId(calisanId)
+				.requestedDates(date + "-" + date)
+				.requestDesc("stres testi")
+				.build();
+	}
+
+	// Tüm thread'ler aynı anda başlar; çakışma (IllegalStateException) false döner
+	private List<Future<Boolean>> runConcurrently(List<String> ids) throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Boolean>> results = new ArrayList<>();
+		for (String id : ids) {
+			results.add(executor.submit(() -> {
+				start.await();
+				try {
+					return izinTalebiService.approveIzinTalebi(id).isPresent();
+				} catch (IllegalStateException e) {
+					return false;
+				}
+			}));
+		}
+		start.countDown();
+		executor.shutdown();
+		executor.awaitTermination(1, TimeUnit.MINUTES);
+		return results;
+	}
+
+	private static LocalDate nextWeekday(LocalDate day) {
+		LocalDate next = day.plusDays(1);
+		while (next.getDayOfWeek() == DayOfWeek.SATURDAY || next.getDayOfWeek() == DayOfWeek.SUNDAY) {
+			next = next.plusDays(1);
+		}
+		return next;
+	}
+
+	private long countByStatus(String status) {
+		return mongoTemplate.count(
+				new Query(where("calisanId").is(calisanId).and("requestStatus").is(status)), IzinTalebi.class);
+	}
+}
@@ -0,0 +1,128 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import com.izin_talebi.izin_talebi_spring.dto.BulkDecisionRequest;
+import com.izin_talebi.izin_talebi_spring.dto.BulkDecisionResult;
+import com.izin_talebi.izin_talebi_spring.model.IzinTalebi;
+import com.izin_talebi.izin_talebi_spring.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@SpringBootTest
+class IzinTalebiBulkServiceTest {
+
+	@Autowired
+	private IzinTalebiService izinTalebiService;
+
+	@Autowired
+	private IzinTalebiBulkService izinTalebiBulkService;
+
+	@SpyBean
+	private MongoTemplate mongoTemplate;
+
+	private int calisanId;
+
+	@BeforeEach
+	void setUp() {
+		calisanId = -ThreadLocalRandom.current().nextInt(1_000_000, Integer.MAX_VALUE);
+		mongoTemplate.insert(User.builder()
+				.calisanId(calisanId)
+				.email("bulk-" + calisanId + "@test.local")
+				.role("USER")
+				.usedDays(0)
+				.remainingDays(6)
+				.build());
+	}
+
+	@AfterEach
+	void tearDown() {
+		mongoTemplate.remove(new Query(where("calisanId").is(calisanId)), IzinTalebi.class);
+		mongoTemplate.remove(new Query(where("calisanId").is(calisanId)), User.class);
+	}
+
+	@Test
+	void appliesEachItemIndependently() {
+		// 6-10 Ocak 2025: 5 iş günü, 13-14 Ocak: 2 iş günü, 20 Ocak: 1 iş günü; bakiye 6
+		String week = create("06.01.2025-10.01.2025");
+		String twoDays = create("13.01.2025-14.01.2025");
+		String rejected = create("20.01.2025-20.01.2025");
+		String decided = create("27.01.2025-27.01.2025");
+		izinTalebiService.rejectIzinTalebi(decided);
+
+		List<BulkDecisionResult> results = izinTalebiBulkService.decide(List.of(
+				new BulkDecisionRequest.Item(week, IzinTalebiBulkService.DECISION_APPROVE),
+				new BulkDecisionRequest.Item(twoDays, IzinTalebiBulkService.DECISION_APPROVE),
+				new BulkDecisionRequest.Item(rejected, IzinTalebiBulkService.DECISION_REJECT),
+				new BulkDecisionRequest.Item(decided, IzinTalebiBulkService.DECISION_APPROVE),
+				new BulkDecisionRequest.Item("000000000000000000000000", IzinTalebiBulkService.DECISION_APPROVE),
+				new BulkDecisionRequest.Item(week, "BEKLET")));
+
+		assertEquals(List.of(BulkDecisionResult.OK, BulkDecisionResult.INSUFFICIENT_BALANCE, BulkDecisionResult.OK,
+						BulkDecisionResult.CONFLICT, BulkDecisionResult.NOT_FOUND, BulkDecisionResult.INVALID),
+				results.stream().map(BulkDecisionResult::getStatus).toList());
+
+		User user = mongoTemplate.findOne(new Query(where("calisanId").is(calisanId)), User.class);
+		assertEquals(1, user.getRemainingDays());
+		assertEquals(5, user.getUsedDays());
+		assertEquals("ONAYLANDI", status(week));
+		assertEquals("BEKLEMEDE", status(twoDays));
+		assertEquals("REDDEDİLDİ", status(rejected));
+	}
+
+	@Test
+	void rollsBackWholeBatchWhenBalanceStepFails() {
+		String week = create("06.01.2025-10.01.2025");
+		String rejected = create("20.01.2025-20.01.2025");
+		// İlk kullanıcı okuması ön kontrol, ikincisi bakiye düşümünden sonraki işaret okuması
+		doCallRealMethod()
+				.doThrow(new DataAccessResourceFailureException("bağlantı koptu"))
+				.doCallRealMethod()
+				.when(mongoTemplate).find(any(Query.class), eq(User.class));
+
+		assertThrows(DataAccessResourceFailureException.class, () -> izinTalebiBulkService.decide(List.of(
+				new BulkDecisionRequest.Item(week, IzinTalebiBulkService.DECISION_APPROVE),
+				new BulkDecisionRequest.Item(rejected, IzinTalebiBulkService.DECISION_REJECT))));
+
+		User user = mongoTemplate.findOne(new Query(where("calisanId").is(calisanId)), User.class);
+		assertEquals(6, user.getRemainingDays());
+		assertEquals(0, user.getUsedDays());
+		assertEquals("BEKLEMEDE", status(week));
+		assertEquals("BEKLEMEDE", status(rejected));
+		assertFalse(mongoTemplate.exists(new Query(where("calisanId").is(calisanId).and("kararIslemleri").exists(true)
+				.ne(List.of())), "calisanlar"));
+		assertFalse(mongoTemplate.exists(new Query(where("calisanId").is(calisanId).and("kararIslemId").exists(true)),
+				"izinTalepleri"));
+
+		// Kapasite de bırakılmış olmalı: aynı talep tekrar onaylanabilir
+		assertEquals(BulkDecisionResult.OK, izinTalebiBulkService.decide(List.of(
+				new BulkDecisionRequest.Item(week, IzinTalebiBulkService.DECISION_APPROVE))).get(0).getStatus());
+	}
+
+	private String create(String dates) {
+		return izinTalebiService.createIzinTalebi(IzinTalebi.builder()
+				.calisanId(calisanId)
+				.requestedDates(dates)
+				.build()).getId();
+	}
+
+	private String status(String id) {
+		return mongoTemplate.findById(id, IzinTalebi.class).getRequestStatus();
+	}
+}
@@ -0,0 +1,205 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import com.izin_talebi.izin_talebi_spring.model.AnalysisJob;
+import com.izin_talebi.izin_talebi_spring.model.IzinTalebi;
+import com.izin_talebi.izin_talebi_spring.model.User;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// Zamanlanmış yoklama kapalı tutulur; işçiler poll() ile elle tetiklenir
+@SpringBootTest(properties = {
+		"izin.analysis.poll-millis=3600000",
+		"izin.analysis.max-attempts=2",
+		"izin.analysis.retry-base-millis=1"
+})
+class LeaveAnalysisQueueTest {
+
+	private static final long LLM_LATENCY_MILLIS = 1_500;
+
+	@MockBean
+	private OpenAIService openAIService;
+
+	@Autowired
+	private LeaveAnalysisQueue analysisQueue;
+
+	@Autowired
+	private IzinTalebiService izinTalebiService;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	private int calisanId;
+
+	@BeforeEach
+	void setUp() {
+		calisanId = -ThreadLocalRandom.current().nextInt(1_000_000, Integer.MAX_VALUE);
+		mongoTemplate.insert(User.builder()
+				.calisanId(calisanId)
+				.email("analysis-" + calisanId + "@test.local")
+				.role("USER")
+				.usedDays(0)
+				.remainingDays(20)
+				.build());
+	}
+
+	@AfterEach
+	void tearDown() {
+		for (IzinTalebi izinTalebi : mongoTemplate.find(new Query(where("calisanId").is(calisanId)), IzinTalebi.class)) {
+			mongoTemplate.remove(new Query(where("_id").is(izinTalebi.getId())), AnalysisJob.class);
+		}
+		mongoTemplate.remove(new Query(where("calisanId").is(calisanId)), IzinTalebi.class);
+		mongoTemplate.remove(new Query(where("calisanId").is(calisanId)), User.class);
+	}
+
+	@Test
+	void submissionDoesNotWaitForSlowLlm() throws Exception {
+		when(openAIService.analyze(anyString())).thenAnswer(invocation -> {
+			Thread.sleep(LLM_LATENCY_MILLIS);
+			return "Yıllık izin";
+		});
+
+		long start = System.nanoTime();
+		IzinTalebi created = create("06.01.2025-07.01.2025", "yıllık izin");
+		long submitMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		assertTrue(submitMillis < LLM_LATENCY_MILLIS, "submission took " + submitMillis + " ms");
+		assertEquals(LeaveAnalysisQueue.ANALYSIS_QUEUED, created.getAnalysisStatus());
+
+		analysisQueue.poll();
+		IzinTalebi analysed = awaitAnalysis(created.getId());
+		assertEquals(LeaveAnalysisQueue.ANALYSIS_DONE, analysed.getAnalysisStatus());
+		assertEquals("Yıllık izin", analysed.getAnalysisResult());
+		assertNull(mongoTemplate.findById(created.getId(), AnalysisJob.class));
+	}
+
+	@Test
+	void failedAnalysisIsRetriedThenMarkedFailed() throws Exception {
+		when(openAIService.analyze(anyString())).thenThrow(new IOException("HTTP 503"));
+		IzinTalebi created = create("13.01.2025-13.01.2025", "doktor raporu");
+
+		analysisQueue.poll();
+		awaitJobStatus(created.getId(), LeaveAnalysisQueue.JOB_PENDING, 1);
+		Thread.sleep(10);
+		analysisQueue.poll();
+
+		IzinTalebi analysed = awaitAnalysis(created.getId());
+		assertEquals(LeaveAnalysisQueue.ANALYSIS_FAILED, analysed.getAnalysisStatus());
+		AnalysisJob job = mongoTemplate.findById(created.getId(), AnalysisJob.class);
+		assertEquals(LeaveAnalysisQueue.JOB_FAILED, job.getStatus());
+		assertEquals(2, job.getAttempts());
+		assertTrue(job.getLastError().contains("HTTP 503"));
+	}
+
+	@Test
+	void requestWithoutDescriptionIsNotQueued() {
+		IzinTalebi created = create("20.01.2025-20.01.2025", null);
+
+		assertNull(created.getAnalysisStatus());
+		assertNull(mongoTemplate.findById(created.getId(), AnalysisJob.class));
+	}
+
+	@Test
+	void orphanedQueuedRequestIsRequeued() {
+		// Talep yazılmış, iş kaydı yazılamadan instance çökmüş; id grace süresinden eski
+		String id = new ObjectId(new Date(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1))).toHexString();
+		mongoTemplate.insert(IzinTalebi.builder()
+				.id(id)
+				.calisanId(calisanId)
+				.requestedDates("27.01.2025-27.01.2025")
+				.requestDesc("taşınma")
+				.requestStatus(IzinTalebiService.STATUS_PENDING)
+				.analysisStatus(LeaveAnalysisQueue.ANALYSIS_QUEUED)
+				.build());
+
+		analysisQueue.sweepOrphans();
+
+		AnalysisJob job = mongoTemplate.findById(id, AnalysisJob.class);
+		assertEquals(LeaveAnalysisQueue.JOB_PENDING, job.getStatus());
+		assertEquals("taşınma", job.getText());
+	}
+
+	@Test
+	void resultIsNotWrittenAfterLeaseMovesToAnotherInstance() throws Exception {
+		IzinTalebi created = create("03.02.2025-03.02.2025", "yıllık izin");
+		// LLM yanıtı gelmeden kira süresi dolmuş ve iş başka bir instance'a geçmiş
+		when(openAIService.analyze(anyString())).thenAnswer(invocation -> {
+			mongoTemplate.updateFirst(new Query(where("_id").is(created.getId())),
+					new Update().set("owner", "baska-instance"), AnalysisJob.class);
+			return "Yıllık izin";
+		});
+
+		analysisQueue.poll();
+		verify(openAIService, timeout(10_000)).analyze("yıllık izin");
+		awaitIdleWorkers();
+
+		IzinTalebi izinTalebi = mongoTemplate.findById(created.getId(), IzinTalebi.class);
+		assertEquals(LeaveAnalysisQueue.ANALYSIS_QUEUED, izinTalebi.getAnalysisStatus());
+		assertNull(izinTalebi.getAnalysisResult());
+		assertEquals("baska-instance", mongoTemplate.findById(created.getId(), AnalysisJob.class).getOwner());
+	}
+
+	private IzinTalebi create(String dates, String description) {
+		return izinTalebiService.createIzinTalebi(IzinTalebi.builder()
+				.calisanId(calisanId)
+				.requestedDates(dates)
+				.requestDesc(description)
+				.build());
+	}
+
+	private IzinTalebi awaitAnalysis(String id) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (System.currentTimeMillis() < deadline) {
+			IzinTalebi izinTalebi = mongoTemplate.findById(id, IzinTalebi.class);
+			if (!LeaveAnalysisQueue.ANALYSIS_QUEUED.equals(izinTalebi.getAnalysisStatus())) {
+				return izinTalebi;
+			}
+			Thread.sleep(20);
+		}
+		throw new AssertionError("analysis of " + id + " did not finish");
+	}
+
+	private void awaitIdleWorkers() throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (System.currentTimeMillis() < deadline) {
+			if (((Number) analysisQueue.stats().get("activeWorkers")).intValue() == 0) {
+				return;
+			}
+			Thread.sleep(20);
+		}
+		throw new AssertionError("analysis workers did not finish");
+	}
+
+	private void awaitJobStatus(String id, String status, int attempts) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (System.currentTimeMillis() < deadline) {
+			AnalysisJob job = mongoTemplate.findById(id, AnalysisJob.class);
+			if (job != null && status.equals(job.getStatus()) && job.getAttempts() == attempts) {
+				return;
+			}
+			Thread.sleep(20);
+		}
+		throw new AssertionError("job " + id + " did not reach " + status);
+	}
+}
@@ -0,0 +1,103 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LlmResponseCacheTest {
+
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+	@Test
+	void keyIgnoresCaseWhitespaceAndUnicodeForm() {
+		String key = LlmResponseCache.key("Yıllık izin", "gpt-3.5-turbo", 100);
+
+		assertEquals(key, LlmResponseCache.key("  YILLIK   izin\n", "gpt-3.5-turbo", 100));
+		// Küçük harfe çevirme Türkçe kurallarla yapılır (I → ı, İ → i)
+		assertEquals(LlmResponseCache.key("İzin", "gpt-3.5-turbo", 100), LlmResponseCache.key("izin", "gpt-3.5-turbo", 100));
+		// Ayrışık yazılmış ğ (g + birleşik breve) NFC ile tek karaktere döner
+		assertEquals(LlmResponseCache.key("doğum izni", "gpt-3.5-turbo", 100), LlmResponseCache.key("dog\u0306um izni", "gpt-3.5-turbo", 100));
+		assertNotEquals(key, LlmResponseCache.key("Yıllık izin", "gpt-4o", 100));
+		assertNotEquals(key, LlmResponseCache.key("Yıllık izin", "gpt-3.5-turbo", 200));
+	}
+
+	@Test
+	void memoryTierCountsHitsAndSavedLatency() {
+		LlmResponseCache cache = new LlmResponseCache(mongoTemplate, 10, 60, false, 600);
+		String key = LlmResponseCache.key("doktor raporu", "gpt-3.5-turbo", 100);
+
+		assertEquals(Optional.empty(), cache.get(key));
+		cache.put(key, "Hastalık izni", 850);
+		assertEquals(Optional.of("Hastalık izni"), cache.get(key));
+		assertEquals(Optional.of("Hastalık izni"), cache.get(key));
+
+		assertEquals(2L, cache.stats().get("memoryHits"));
+		assertEquals(1L, cache.stats().get("misses"));
+		assertEquals(1700L, cache.stats().get("savedMillis"));
+		verify(mongoTemplate, never()).save(any(), any());
+	}
+
+	@Test
+	void leastRecentlyUsedEntryIsEvicted() {
+		LlmResponseCache cache = new LlmResponseCache(mongoTemplate, 2, 60, false, 600);
+		cache.put("a", "A", 1);
+		cache.put("b", "B", 1);
+		cache.get("a");
+		cache.put("c", "C", 1);
+
+		assertEquals(Optional.of("A"), cache.get("a"));
+		assertEquals(Optional.empty(), cache.get("b"));
+		assertEquals(1L, cache.stats().get("evictions"));
+	}
+
+	@Test
+	void persistentTierServesEntriesWrittenByAnotherInstance() {
+		String key = LlmResponseCache.key("yıllık izin", "gpt-3.5-turbo", 100);
+		when(mongoTemplate.findById(eq(key), eq(Document.class), eq(LlmResponseCache.COLLECTION)))
+				.thenReturn(new Document("_id", key)
+						.append("response", "Yıllık izin talebi")
+						.append("latencyMillis", 1200L)
+						.append("createdAt", new Date()));
+		LlmResponseCache cache = new LlmResponseCache(mongoTemplate, 10, 60, true, 600);
+
+		assertEquals(Optional.of("Yıllık izin talebi"), cache.get(key));
+		// İkinci okuma bellekten gelir
+		assertEquals(Optional.of("Yıllık izin talebi"), cache.get(key));
+		assertEquals(1L, cache.stats().get("persistentHits"));
+		assertEquals(1L, cache.stats().get("memoryHits"));
+		verify(mongoTemplate).findById(eq(key), eq(Document.class), eq(LlmResponseCache.COLLECTION));
+	}
+
+	@Test
+	void expiredPersistentEntryIsAMiss() {
+		String key = LlmResponseCache.key("izin", "gpt-3.5-turbo", 100);
+		when(mongoTemplate.findById(eq(key), eq(Document.class), eq(LlmResponseCache.COLLECTION)))
+				.thenReturn(new Document("_id", key)
+						.append("response", "eski")
+						.append("latencyMillis", 10L)
+						.append("createdAt", new Date(System.currentTimeMillis() - 601_000)));
+		LlmResponseCache cache = new LlmResponseCache(mongoTemplate, 10, 60, true, 600);
+
+		assertEquals(Optional.empty(), cache.get(key));
+	}
+
+	@Test
+	void putWritesThroughToPersistentTier() {
+		LlmResponseCache cache = new LlmResponseCache(mongoTemplate, 10, 60, true, 600);
+		cache.put("k", "yanıt", 300);
+
+		verify(mongoTemplate).save(any(Document.class), eq(LlmResponseCache.COLLECTION));
+	}
+}
@@ -0,0 +1,132 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MicroBatcherTest {
+
+	private static final int REQUESTS = 200;
+	// İstek başına sabit gidiş-dönüş maliyeti ve kalem başına üretim süresi
+	private static final long CALL_OVERHEAD_MILLIS = 40;
+	private static final long PER_ITEM_MILLIS = 2;
+	// Hız sınırı: aynı anda açık istek sayısı
+	private static final int RATE_LIMIT_SLOTS = 4;
+
+	private final AtomicInteger calls = new AtomicInteger();
+
+	@Test
+	void flushesWhenBatchIsFullAndKeepsOrder() throws Exception {
+		MicroBatcher<String, String> batcher = new MicroBatcher<>("test", 3, 10_000, this::echo);
+		try {
+			CompletableFuture<String> first = batcher.submit("yıllık izin");
+			CompletableFuture<String> second = batcher.submit("doktor raporu");
+			CompletableFuture<String> third = batcher.submit("mazeret izni");
+
+			assertEquals("YILLIK İZİN", first.get(1, TimeUnit.SECONDS));
+			assertEquals("DOKTOR RAPORU", second.get(1, TimeUnit.SECONDS));
+			assertEquals("MAZERET İZNİ", third.get(1, TimeUnit.SECONDS));
+			assertEquals(1, calls.get());
+			assertEquals(1L, batcher.stats().get("sizeFlushes"));
+		} finally {
+			batcher.shutdown();
+		}
+	}
+
+	@Test
+	void flushesPartialBatchWhenWindowCloses() throws Exception {
+		MicroBatcher<String, String> batcher = new MicroBatcher<>("test", 10, 20, this::echo);
+		try {
+			CompletableFuture<String> first = batcher.submit("a");
+			CompletableFuture<String> second = batcher.submit("b");
+
+			assertEquals("A", first.get(1, TimeUnit.SECONDS));
+			assertEquals("B", second.get(1, TimeUnit.SECONDS));
+			assertEquals(1, calls.get());
+			assertEquals(0L, batcher.stats().get("sizeFlushes"));
+		} finally {
+			batcher.shutdown();
+		}
+	}
+
+	@Test
+	void missingItemsCompleteWithNullAndFailuresReachEveryCaller() throws Exception {
+		MicroBatcher<String, String> partial = new MicroBatcher<>("test", 2, 10_000, items -> List.of("ilk"));
+		MicroBatcher<String, String> failing = new MicroBatcher<>("test", 2, 10_000, items -> {
+			throw new IOException("HTTP 503");
+		});
+		try {
+			CompletableFuture<String> answered = partial.submit("a");
+			CompletableFuture<String> missing = partial.submit("b");
+			assertEquals("ilk", answered.get(1, TimeUnit.SECONDS));
+			assertNull(missing.get(1, TimeUnit.SECONDS));
+
+			CompletableFuture<String> first = failing.submit("a");
+			CompletableFuture<String> second = failing.submit("b");
+			for (CompletableFuture<String> future : List.of(first, second)) {
+				ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+				assertInstanceOf(IOException.class, e.getCause());
+			}
+			assertEquals(1L, failing.stats().get("failedBatches"));
+		} finally {
+			partial.shutdown();
+			failing.shutdown();
+		}
+	}
+
+	// Hız sınırı altında aynı anda gelen 200 analiz isteği; tek tek gönderim ile 16'lık toplu gönderim
+	@Test
+	void batchingCutsCallsUnderRateLimit() throws Exception {
+		submitAll(1);
+		int singleCalls = calls.getAndSet(0);
+		submitAll(16);
+		int batchedCalls = calls.get();
+
+		assertEquals(REQUESTS, singleCalls);
+		assertTrue(batchedCalls >= (REQUESTS + 15) / 16, "batched calls " + batchedCalls);
+		assertTrue(batchedCalls < REQUESTS / 4, "batched calls " + batchedCalls);
+	}
+
+	private void submitAll(int maxBatchSize) throws Exception {
+		Semaphore slots = new Semaphore(RATE_LIMIT_SLOTS);
+		MicroBatcher<String, String> batcher = new MicroBatcher<>("bench", maxBatchSize, 20, items -> {
+			slots.acquire();
+			try {
+				Thread.sleep(CALL_OVERHEAD_MILLIS + PER_ITEM_MILLIS * items.size());
+				return echo(items);
+			} finally {
+				slots.release();
+			}
+		});
+		try {
+			List<CompletableFuture<String>> futures = new ArrayList<>(REQUESTS);
+			for (int i = 0; i < REQUESTS; i++) {
+				futures.add(batcher.submit("izin " + i));
+			}
+			for (int i = 0; i < REQUESTS; i++) {
+				assertEquals("İZİN " + i, futures.get(i).get(30, TimeUnit.SECONDS));
+			}
+		} finally {
+			batcher.shutdown();
+		}
+	}
+
+	private List<String> echo(List<String> items) {
+		calls.incrementAndGet();
+		return items.stream().map(item -> item.toUpperCase(Locale.forLanguageTag("tr"))).toList();
+	}
+}
@@ -0,0 +1,214 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Yerel stub sunucuya karşı tekrar, süre sınırı, devre kesici ve eşzamanlılık sınırı
+class OpenAIHttpClientTest {
+
+	private static final String OK_BODY = "{\"choices\":[{\"message\":{\"content\":\"yıllık izin\"}}]}";
+
+	private HttpServer stub;
+	private URI uri;
+	private final AtomicInteger hits = new AtomicInteger();
+	// Gelen isteğin sırasına göre durum kodu
+	private volatile IntUnaryOperator statusForHit = hit -> 200;
+	private volatile long delayMillis;
+
+	@BeforeEach
+	void startStub() throws IOException {
+		stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+		stub.createContext("/v1/chat/completions", this::handle);
+		stub.setExecutor(Executors.newCachedThreadPool());
+		stub.start();
+		uri = URI.create("http://127.0.0.1:" + stub.getAddress().getPort() + "/v1/chat/completions");
+	}
+
+	@AfterEach
+	void stopStub() {
+		stub.stop(0);
+	}
+
+	@Test
+	void retriesServerErrorsAndReturnsEventualSuccess() throws Exception {
+		statusForHit = hit -> hit <= 2 ? 503 : 200;
+		OpenAIHttpClient client = client(2_000, 5_000, 4, 1, 5);
+
+		HttpResponse<String> response = client.postJson(uri, "test-key", "{}");
+
+		assertEquals(200, response.statusCode());
+		assertEquals(OK_BODY, response.body());
+		assertEquals(3, hits.get());
+		assertEquals(2L, client.stats().get("retries"));
+		assertEquals(OpenAIHttpClient.CIRCUIT_CLOSED, client.getCircuitState());
+	}
+
+	@Test
+	void clientErrorsAreNotRetried() throws Exception {
+		statusForHit = hit -> 400;
+		OpenAIHttpClient client = client(2_000, 5_000, 4, 1, 5);
+
+		assertEquals(400, client.postJson(uri, "test-key", "{}").statusCode());
+		assertEquals(1, hits.get());
+	}
+
+	@Test
+	void slowResponseIsBoundedByTotalDeadline() {
+		delayMillis = 2_000;
+		OpenAIHttpClient client = client(200, 500, 5, 1, 0);
+
+		long start = System.nanoTime();
+		assertThrows(HttpTimeoutException.class, () -> client.postJson(uri, "test-key", "{}"));
+		long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		assertTrue(elapsedMillis < 1_500, "took " + elapsedMillis + " ms");
+	}
+
+	@Test
+	void circuitOpensAfterConsecutiveFailuresAndStopsCalling() throws Exception {
+		statusForHit = hit -> 500;
+		OpenAIHttpClient client = client(2_000, 5_000, 1, 1, 2);
+
+		assertEquals(500, client.postJson(uri, "test-key", "{}").statusCode());
+		assertEquals(500, client.postJson(uri, "test-key", "{}").statusCode());
+		assertEquals(OpenAIHttpClient.CIRCUIT_OPEN, client.getCircuitState());
+
+		assertThrows(RejectedExecutionException.class, () -> client.postJson(uri, "test-key", "{}"));
+		assertEquals(2, hits.get());
+		assertEquals(1L, client.stats().get("rejectedOpen"));
+	}
+
+	@Test
+	void halfOpenProbeClosesCircuitOnSuccess() throws Exception {
+		statusForHit = hit -> hit == 1 ? 500 : 200;
+		OpenAIHttpClient client = new OpenAIHttpClient(1_000, 2_000, 5_000, 1, 50, 1, 10, 50, 1, 100);
+
+		assertEquals(500, client.postJson(uri, "test-key", "{}").statusCode());
+		assertEquals(OpenAIHttpClient.CIRCUIT_OPEN, client.getCircuitState());
+		Thread.sleep(150);
+		assertEquals(OpenAIHttpClient.CIRCUIT_HALF_OPEN, client.getCircuitState());
+
+		assertEquals(200, client.postJson(uri, "test-key", "{}").statusCode());
+		assertEquals(OpenAIHttpClient.CIRCUIT_CLOSED, client.getCircuitState());
+	}
+
+	// Deneme isteği sonuç kaydedilmeden kesilirse hakkı bırakılır; devre açık kalmaz
+	@Test
+	void interruptedHalfOpenProbeReleasesItsSlot() throws Exception {
+		statusForHit = hit -> hit == 1 ? 500 : 200;
+		OpenAIHttpClient client = new OpenAIHttpClient(1_000, 5_000, 10_000, 2, 50, 1, 10, 50, 1, 100);
+		assertEquals(500, client.postJson(uri, "test-key", "{}").statusCode());
+		Thread.sleep(150);
+		assertEquals(OpenAIHttpClient.CIRCUIT_HALF_OPEN, client.getCircuitState());
+
+		delayMillis = 3_000;
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		Thread probe = new Thread(() -> {
+			try {
+				client.postJson(uri, "test-key", "{}");
+			} catch (Throwable t) {
+				failure.set(t);
+			}
+		});
+		probe.start();
+		awaitHits(2);
+		probe.interrupt();
+		probe.join(5_000);
+		assertFalse(probe.isAlive());
+		assertInstanceOf(InterruptedException.class, failure.get());
+
+		delayMillis = 0;
+		assertEquals(200, client.postJson(uri, "test-key", "{}").statusCode());
+		assertEquals(OpenAIHttpClient.CIRCUIT_CLOSED, client.getCircuitState());
+	}
+
+	@Test
+	void excessCallersAreRejectedWhenConcurrencyLimitIsReached() throws Exception {
+		delayMillis = 500;
+		OpenAIHttpClient client = client(2_000, 5_000, 1, 1, 0);
+		CountDownLatch started = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<HttpResponse<String>> first = executor.submit(() -> {
+				started.countDown();
+				return client.postJson(uri, "test-key", "{}");
+			});
+			started.await();
+			Thread.sleep(100);
+
+			assertThrows(RejectedExecutionException.class, () -> client.postJson(uri, "test-key", "{}"));
+			assertEquals(200, first.get().statusCode());
+		} finally {
+			executor.shutdownNow();
+		}
+		Map<String, Object> stats = client.stats();
+		assertEquals(1L, stats.get("rejectedBusy"));
+		assertEquals(0, stats.get("inFlight"));
+	}
+
+	private void awaitHits(int expected) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (hits.get() < expected) {
+			if (System.currentTimeMillis() > deadline) {
+				throw new AssertionError("stub received " + hits.get() + " requests");
+			}
+			Thread.sleep(10);
+		}
+	}
+
+	private OpenAIHttpClient client(long readTimeoutMillis, long totalTimeoutMillis, int maxAttempts,
+									int maxConcurrency, int failureThreshold) {
+		return new OpenAIHttpClient(1_000, readTimeoutMillis, totalTimeoutMillis, maxConcurrency, 50,
+				maxAttempts, 10, 50, failureThreshold, 60_000);
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		int hit = hits.incrementAndGet();
+		try (InputStream body = exchange.getRequestBody()) {
+			body.readAllBytes();
+		}
+		if (delayMillis > 0) {
+			try {
+				Thread.sleep(delayMillis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		int status = statusForHit.applyAsInt(hit);
+		byte[] response = (status == 200 ? OK_BODY : "{\"error\":\"stub\"}").getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, response.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(response);
+		}
+	}
+}
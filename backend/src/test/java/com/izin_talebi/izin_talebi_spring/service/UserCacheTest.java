@@ -0,0 +1,69 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import com.izin_talebi.izin_talebi_spring.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+class UserCacheTest {
+
+	private final UserCache cache = new UserCache(100, 300);
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@Test
+	void cachedUserIsServedWithoutLoader() {
+		cache.findByEmail("ayse@talenteer.com", () -> load(user(20)));
+		Optional<User> byCalisanId = cache.findByCalisanId(4, () -> load(user(0)));
+
+		assertEquals(20, byCalisanId.orElseThrow().getRemainingDays());
+		assertEquals(1, loads.get());
+	}
+
+	// Yükleme sürerken bakiye güncellenip evict edilirse eski kullanıcı önbelleğe yazılmamalı
+	@Test
+	void evictDuringLoadKeepsStaleUserOut() {
+		cache.findByEmail("ayse@talenteer.com", () -> {
+			User stale = user(20);
+			cache.evict(User.builder().calisanId(4).build());
+			return load(stale);
+		});
+
+		Optional<User> reloaded = cache.findByEmail("ayse@talenteer.com", () -> load(user(17)));
+
+		assertEquals(17, reloaded.orElseThrow().getRemainingDays());
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void callersGetCopiesThatDoNotLeakIntoCache() {
+		User loaded = cache.findByEmail("ayse@talenteer.com", () -> load(user(20))).orElseThrow();
+		loaded.setRemainingDays(0);
+
+		User first = cache.findByEmail("ayse@talenteer.com", () -> load(user(0))).orElseThrow();
+		first.setPozisyon("İK Uzmanı");
+		User second = cache.findByEmail("ayse@talenteer.com", () -> load(user(0))).orElseThrow();
+
+		assertNotSame(first, second);
+		assertEquals(20, second.getRemainingDays());
+		assertEquals("Şantiye Şefi", second.getPozisyon());
+		assertEquals(1, loads.get());
+	}
+
+	private Optional<User> load(User user) {
+		loads.incrementAndGet();
+		return Optional.of(user);
+	}
+
+	private static User user(int remainingDays) {
+		return User.builder()
+				.email("ayse@talenteer.com")
+				.calisanId(4)
+				.pozisyon("Şantiye Şefi")
+				.remainingDays(remainingDays)
+				.build();
+	}
+}
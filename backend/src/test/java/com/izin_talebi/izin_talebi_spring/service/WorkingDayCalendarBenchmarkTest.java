@@ -0,0 +1,61 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import com.izin_talebi.izin_talebi_spring.model.DateRange;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tablolar ısındıktan sonra çok yıllı bir aralığın önek tablosuyla sayılmasını gün gün toplamla
+ * karşılaştırır. Süreler yalnızca loglanır, doğrulanan iki yolun aynı sonucu vermesidir.
+ * Yalnızca -Pbenchmark ile çalışır.
+ */
+@Tag("benchmark")
+class WorkingDayCalendarBenchmarkTest {
+	private static final Logger logger = LoggerFactory.getLogger(WorkingDayCalendarBenchmarkTest.class);
+
+	private static final int CALLS = 1_000_000;
+	private static final int DAY_BY_DAY_CALLS = 1_000;
+
+	private final WorkingDayCalendar calendar = new WorkingDayCalendar("TR", "", "");
+
+	@Test
+	void multiYearRangeCost() {
+		// İzin talebi sınırını aşan aralık; takvim hesabı için kurucu doğrudan kullanılır
+		DateRange range = new DateRange(LocalDate.of(2023, 3, 15), LocalDate.of(2027, 9, 20));
+
+		long sink = 0;
+		for (int i = 0; i < CALLS; i++) {
+			sink += calendar.workingHalfDays("TR", range);
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < CALLS; i++) {
+			sink += calendar.workingHalfDays("TR", range);
+		}
+		double prefixNanos = (System.nanoTime() - start) / (double) CALLS;
+
+		int dayByDay = 0;
+		start = System.nanoTime();
+		for (int i = 0; i < DAY_BY_DAY_CALLS; i++) {
+			dayByDay = dayByDay(range);
+		}
+		double dayByDayNanos = (System.nanoTime() - start) / (double) DAY_BY_DAY_CALLS;
+
+		logger.info("5-year range: {} ns per prefix-table query, {} ns per day-by-day sum (checksum {})",
+				Math.round(prefixNanos), Math.round(dayByDayNanos), sink);
+		assertEquals(dayByDay, calendar.workingHalfDays("TR", range));
+	}
+
+	private int dayByDay(DateRange range) {
+		int halfDays = 0;
+		for (LocalDate day = range.start(); !day.isAfter(range.end()); day = day.plusDays(1)) {
+			halfDays += calendar.workingHalfDays("TR", new DateRange(day, day));
+		}
+		return halfDays;
+	}
+}
@@ -0,0 +1,71 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import com.izin_talebi.izin_talebi_spring.model.DateRange;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WorkingDayCalendarTest {
+
+	private final WorkingDayCalendar calendar = new WorkingDayCalendar("TR", "", "");
+
+	@Test
+	void countsPlainWeekdays() {
+		assertEquals(5, calendar.chargeableDays(DateRange.parse("06.01.2025-10.01.2025")));
+		assertEquals(5, calendar.chargeableDays(DateRange.parse("04.01.2025-12.01.2025")));
+		assertEquals(0, calendar.chargeableDays(DateRange.parse("11.01.2025-12.01.2025")));
+	}
+
+	@Test
+	void skipsReligiousHolidays() {
+		// Ramazan Bayramı 2025: arife Cumartesi, 31 Mart ve 1 Nisan hafta içi tatil
+		assertEquals(8, calendar.chargeableDays(DateRange.parse("24.03.2025-04.04.2025")));
+	}
+
+	@Test
+	void chargesHalfDaysRoundedUp() {
+		// 28 Ekim yarım gün, 29 Ekim tatil
+		DateRange range = DateRange.parse("27.10.2025-31.10.2025");
+		assertEquals(3.5, calendar.workingDays("TR", range));
+		assertEquals(4, calendar.chargeableDays(range));
+	}
+
+	@Test
+	void appliesSiteHolidaysOnTopOfCommonOnes() {
+		WorkingDayCalendar sites = new WorkingDayCalendar("TR", "2025-01-07", "IST:2025-01-08,IST:2025-01-09/H");
+		DateRange week = DateRange.parse("06.01.2025-10.01.2025");
+		assertEquals(8, sites.workingHalfDays("TR", week));
+		assertEquals(5, sites.workingHalfDays("IST", week));
+		assertEquals(8, sites.workingHalfDays("BILINMEYEN", week));
+	}
+
+	@Test
+	void multiYearRangeMatchesDayByDaySum() {
+		LocalDate start = LocalDate.of(2023, 3, 15);
+		LocalDate end = LocalDate.of(2027, 9, 20);
+		int expected = 0;
+		for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+			expected += calendar.workingHalfDays("TR", new DateRange(day, day));
+		}
+		assertEquals(expected, calendar.workingHalfDays("TR", new DateRange(start, end)));
+	}
+
+	@Test
+	void rejectsMalformedRanges() {
+		assertThrows(IllegalArgumentException.class, () -> DateRange.parse("2025-01-06"));
+		assertThrows(IllegalArgumentException.class, () -> DateRange.parse("10.01.2025-06.01.2025"));
+	}
+
+	// Takvim yıl başına önek dizisi ayırır; kullanıcı aralıkları sınırlı olmalı
+	@Test
+	void rejectsUnboundedRanges() {
+		assertThrows(IllegalArgumentException.class, () -> DateRange.parse("01.01.2000-31.12.9999"));
+		assertThrows(IllegalArgumentException.class, () -> DateRange.parse("01.01.2025-02.01.2026"));
+		assertThrows(IllegalArgumentException.class, () -> DateRange.parse("01.01.1999-05.01.1999"));
+		assertThrows(IllegalArgumentException.class, () -> new DateRange(LocalDate.of(2100, 1, 1), LocalDate.of(2100, 1, 2)));
+		assertEquals(366, DateRange.parse("01.01.2024-31.12.2024").days());
+	}
+}
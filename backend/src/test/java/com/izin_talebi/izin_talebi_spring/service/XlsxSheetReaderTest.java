@@ -0,0 +1,40 @@
+package com.izin_talebi.izin_talebi_spring.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class XlsxSheetReaderTest {
+
+	// Testler backend dizininden çalışır; veri seti depo kökündedir
+	private static final Path DATASET = Path.of("..", "dataset.xlsx");
+
+	@Test
+	void readsHeaderAndSharedStringsFromDataset() throws Exception {
+		List<List<String>> rows = new ArrayList<>();
+		new XlsxSheetReader().read(DATASET, (rowNumber, cells) -> {
+			if (rowNumber <= 2) {
+				rows.add(cells);
+			}
+		});
+
+		assertEquals("Çalışan ID", rows.get(0).get(0));
+		assertEquals("Talep Açıklaması", rows.get(0).get(10));
+		assertEquals("Ahmet Yılmaz", rows.get(1).get(1));
+		assertEquals("12.08.2024-17.08.2024", rows.get(1).get(8));
+		assertEquals("Bekliyor", rows.get(1).get(9));
+		assertTrue(rows.get(1).get(4).startsWith("44270"));
+	}
+
+	@Test
+	void columnIndexHandlesMultiLetterReferences() {
+		assertEquals(0, XlsxSheetReader.columnIndex("A1"));
+		assertEquals(10, XlsxSheetReader.columnIndex("K2"));
+		assertEquals(27, XlsxSheetReader.columnIndex("AB12"));
+	}
+}